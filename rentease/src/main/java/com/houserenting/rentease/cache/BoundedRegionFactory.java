@@ -0,0 +1,70 @@
+package com.houserenting.rentease.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hibernate second-level cache provider backed by in-process LRU maps, one per region.
+// Enabled with hibernate.cache.region.factory_class; region size comes from hibernate.cache.max_entries.
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.max_entries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    // Hibernate instantiates the factory itself, so regions are published here for the stats endpoint
+    private static final Map<String, BoundedStorageAccess> REGIONS = new ConcurrentHashMap<>();
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    public static Collection<BoundedStorageAccess> regions() {
+        return Collections.unmodifiableCollection(REGIONS.values());
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configured = configValues.get(MAX_ENTRIES);
+        if (configured != null) {
+            maxEntries = Integer.parseInt(configured.toString());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        REGIONS.values().forEach(BoundedStorageAccess::release);
+        REGIONS.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return register(new BoundedStorageAccess(regionConfig.getRegionName(), maxEntries));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return register(new BoundedStorageAccess(regionName, maxEntries));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        // Evicting update timestamps could serve stale query results, so this region is never bounded
+        return register(new BoundedStorageAccess(regionName, Integer.MAX_VALUE));
+    }
+
+    private BoundedStorageAccess register(BoundedStorageAccess storage) {
+        REGIONS.put(storage.getRegionName(), storage);
+        return storage;
+    }
+}
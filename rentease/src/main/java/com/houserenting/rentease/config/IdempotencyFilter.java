@@ -0,0 +1,278 @@
+package com.houserenting.rentease.config;
+
+import com.houserenting.rentease.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Makes POSTs that create bookings, favorites and properties safe to retry. A request carrying an
+// Idempotency-Key runs once; repeats of the same key from the same caller on the same method and URI get the
+// recorded response back without running again, and a repeat arriving while the first is still running gets 409.
+// A key reused with a different request body gets 422 rather than the earlier response. Server errors are not
+// recorded, so the client may retry them. Multipart requests are fingerprinted from their parsed parts, leaving
+// the body for the multipart resolver; the bulk import streams its body and is not covered.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    // Other bodies are buffered to fingerprint them before the request runs
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final Pattern PATHS =
+            Pattern.compile("^/api/(bookings|properties(?!/import$)|users/[^/]+/favorites)(/.*)?$");
+
+    private final IdempotencyStore store;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null
+                || !PATHS.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        HttpServletRequest target;
+        String requestHash;
+        if (isMultipart(request)) {
+            try {
+                requestHash = fingerprintParts(request);
+            } catch (IllegalStateException e) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Upload exceeds the allowed size");
+                return;
+            }
+            target = request;
+        } else {
+            byte[] body = readBody(request);
+            if (body == null) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                        HEADER + " is only supported for request bodies up to " + MAX_BODY_BYTES + " bytes");
+                return;
+            }
+            requestHash = HexFormat.of().formatHex(sha256().digest(body));
+            target = new BufferedBodyRequest(request, body);
+        }
+        String key = storageKey(request, idempotencyKey);
+
+        if (replay(key, requestHash, response)) {
+            return;
+        }
+        if (!store.claim(key, requestHash)) {
+            // Another request holds the key: it either finished a moment ago or is still running
+            if (!replay(key, requestHash, response)) {
+                Optional<String> pending = store.pendingRequestHash(key);
+                if (pending.isPresent() && !pending.get().equals(requestHash)) {
+                    rejectReuse(response);
+                } else {
+                    response.sendError(HttpStatus.CONFLICT.value(),
+                            "A request with this " + HEADER + " is still being processed");
+                }
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            chain.doFilter(target, wrapper);
+            if (wrapper.getStatus() < 500) {
+                store.complete(key, requestHash, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray());
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Replays the recorded response when the key has one; a different body is refused instead
+    private boolean replay(String key, String requestHash, HttpServletResponse response) throws IOException {
+        Optional<IdempotencyStore.StoredResponse> stored = store.find(key);
+        if (stored.isEmpty()) {
+            return false;
+        }
+        IdempotencyStore.StoredResponse recorded = stored.get();
+        if (!requestHash.equals(recorded.getRequestHash())) {
+            rejectReuse(response);
+            return true;
+        }
+        response.setStatus(recorded.getStatus());
+        if (recorded.getContentType() != null) {
+            response.setContentType(recorded.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = recorded.getBody() != null ? recorded.getBody() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return true;
+    }
+
+    private static void rejectReuse(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                HEADER + " was already used with a different request body");
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        return request.getContentType() != null
+                && request.getContentType().toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    // Digest of every part's name, file name, content type and content, in the order they were sent. The
+    // container keeps parsed parts (spilling large ones to disk) and hands the same parts to the controller.
+    private static String fingerprintParts(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[8192];
+        for (Part part : request.getParts()) {
+            String header = part.getName() + "\n" + part.getSubmittedFileName() + "\n" + part.getContentType()
+                    + "\n" + part.getSize() + "\n";
+            digest.update(header.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = part.getInputStream()) {
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    digest.update(chunk, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Null when the body exceeds MAX_BODY_BYTES
+    private static byte[] readBody(HttpServletRequest request) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = request.getInputStream()) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (buffer.size() + read > MAX_BODY_BYTES) {
+                    return null;
+                }
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    // Keys are scoped to the caller and the endpoint they were used on, and hashed to a fixed length. The caller
+    // is the authenticated principal; while authentication is disabled, the Authorization header stands in.
+    private static String storageKey(HttpServletRequest request, String idempotencyKey) {
+        Principal principal = request.getUserPrincipal();
+        String caller = principal != null ? "principal:" + principal.getName()
+                : "authorization:" + (request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                        ? request.getHeader(HttpHeaders.AUTHORIZATION) : "");
+        String scope = caller + " " + request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "") + " " + idempotencyKey;
+        return HexFormat.of().formatHex(sha256().digest(scope.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Serves the already buffered body to the rest of the chain
+    private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so the listener can read it all at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.houserenting.rentease.controller;
 
-import com.houserenting.rentease.model.Booking;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserenting.rentease.dto.BookingDTO;
 import com.houserenting.rentease.model.BookingStatus;
+import com.houserenting.rentease.service.BookingEventStream;
 import com.houserenting.rentease.service.BookingService;
+import com.houserenting.rentease.util.SparseFieldset;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -20,18 +25,60 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingEventStream bookingEventStream;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Booking endpoints return BookingDTOs; an optional fields=a,b,c trims each to the listed properties
+
     @GetMapping("/tenant/{tenantId}")
-    public ResponseEntity<List<Booking>> getTenantBookings(@PathVariable Long tenantId) {
-        return ResponseEntity.ok(bookingService.getTenantBookings(tenantId));
+    public ResponseEntity<?> getTenantBookings(
+            @PathVariable Long tenantId,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(
+                SparseFieldset.apply(bookingService.getTenantBookings(tenantId), fields, objectMapper));
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<Booking>> getPropertyBookings(@PathVariable Long propertyId) {
-        return ResponseEntity.ok(bookingService.getPropertyBookings(propertyId));
+    public ResponseEntity<?> getPropertyBookings(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(
+                SparseFieldset.apply(bookingService.getPropertyBookings(propertyId), fields, objectMapper));
+    }
+
+    // Server-sent events for changes to the user's bookings, as tenant or as landlord. Browsers reconnect with
+    // Last-Event-ID and receive what they missed.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingChanges(
+            @RequestParam Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return bookingEventStream.subscribe(userId, lastEventId);
+    }
+
+    // Landlord inbox across all their properties: cursor-paginated, newest first, with per-status counts
+    @GetMapping("/landlord/{landlordId}")
+    public ResponseEntity<?> getLandlordInbox(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            BookingStatus bookingStatus = status != null ? BookingStatus.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok(bookingService.getLandlordInbox(landlordId, bookingStatus, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid status value");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> createBooking(
+            @RequestBody Map<String, Object> request,
+            @RequestParam(required = false) String fields) {
         try {
             System.out.println("Received booking request: " + request);
             System.out.println("Request class: " + request.getClass().getName());
@@ -90,8 +137,8 @@ public class BookingController {
             System.out.println("Parsed values - propertyId: " + propertyId + ", tenantId: " + tenantId + ", startDate: "
                     + startDate);
 
-            Booking booking = bookingService.createBooking(propertyId, tenantId, startDate);
-            return ResponseEntity.ok(booking);
+            BookingDTO booking = bookingService.createBooking(propertyId, tenantId, startDate);
+            return ResponseEntity.ok(SparseFieldset.apply(booking, fields, objectMapper));
         } catch (Exception e) {
             System.err.println("Error creating booking: " + e.getMessage());
             e.printStackTrace();
@@ -102,13 +149,15 @@ public class BookingController {
     @PutMapping("/{bookingId}/status")
     public ResponseEntity<?> updateBookingStatus(
             @PathVariable Long bookingId,
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            @RequestParam(required = false) String fields) {
         try {
             if (!request.containsKey("status")) {
                 return ResponseEntity.badRequest().body("Missing status field");
             }
             BookingStatus status = BookingStatus.valueOf(request.get("status").toUpperCase());
-            return ResponseEntity.ok(bookingService.updateBookingStatus(bookingId, status));
+            return ResponseEntity.ok(
+                    SparseFieldset.apply(bookingService.updateBookingStatus(bookingId, status), fields, objectMapper));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid status value");
         } catch (Exception e) {
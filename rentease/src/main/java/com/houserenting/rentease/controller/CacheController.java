@@ -0,0 +1,48 @@
+package com.houserenting.rentease.controller;
+
+import com.houserenting.rentease.cache.BoundedRegionFactory;
+import com.houserenting.rentease.cache.BoundedStorageAccess;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Per-region hit/miss/put counts from Hibernate statistics, plus size and evictions from the region storage
+    @GetMapping("/stats")
+    public ResponseEntity<List<Map<String, Object>>> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Map<String, Object>> regions = new ArrayList<>();
+        for (BoundedStorageAccess storage : BoundedRegionFactory.regions()) {
+            Map<String, Object> region = new LinkedHashMap<>();
+            region.put("region", storage.getRegionName());
+            region.put("size", storage.size());
+            region.put("maxEntries", storage.getMaxEntries());
+            region.put("evictions", storage.getEvictionCount());
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(storage.getRegionName());
+            if (regionStatistics != null) {
+                region.put("hits", regionStatistics.getHitCount());
+                region.put("misses", regionStatistics.getMissCount());
+                region.put("puts", regionStatistics.getPutCount());
+            }
+            regions.add(region);
+        }
+        return ResponseEntity.ok(regions);
+    }
+}
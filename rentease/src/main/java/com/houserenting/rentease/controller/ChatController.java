@@ -0,0 +1,210 @@
+package com.houserenting.rentease.controller;
+
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Message;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.ChatRepository;
+import com.houserenting.rentease.repository.MessageRepository;
+import com.houserenting.rentease.repository.PropertyRepository;
+import com.houserenting.rentease.repository.UserRepository;
+import com.houserenting.rentease.service.ChatMessageStream;
+import com.houserenting.rentease.service.ChatService;
+import com.houserenting.rentease.service.MessageIngestPipeline;
+import com.houserenting.rentease.service.UnreadCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/chats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ChatController {
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatMessageStream chatMessageStream;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private MessageIngestPipeline ingestPipeline;
+
+    @PostMapping
+    public ResponseEntity<?> createChat(@RequestBody Map<String, Long> request) {
+        try {
+            Long propertyId = request.get("propertyId");
+            Long tenantId = request.get("tenantId");
+            Long landlordId = request.get("landlordId");
+
+            if (propertyId == null || tenantId == null || landlordId == null) {
+                return ResponseEntity.badRequest().body("Missing required fields: propertyId, tenantId, or landlordId");
+            }
+
+            // Check if chat already exists
+            Chat existingChat = chatRepository.findByPropertyIdAndTenantIdAndLandlordId(
+                    propertyId, tenantId, landlordId);
+            if (existingChat != null) {
+                return ResponseEntity.ok(existingChat);
+            }
+
+            // Verify property exists
+            Property property = propertyRepository.findById(propertyId)
+                    .orElseThrow(() -> new RuntimeException("Property not found"));
+
+            // Verify users exist
+            User tenant = userRepository.findById(tenantId)
+                    .orElseThrow(() -> new RuntimeException("Tenant not found"));
+            User landlord = userRepository.findById(landlordId)
+                    .orElseThrow(() -> new RuntimeException("Landlord not found"));
+
+            // Create new chat
+            Chat chat = new Chat();
+            chat.setProperty(property);
+            chat.setTenant(tenant);
+            chat.setLandlord(landlord);
+
+            return ResponseEntity.ok(chatRepository.save(chat));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error creating chat: " + e.getMessage());
+        }
+    }
+
+    // With cursor or limit, returns one page of chat summaries by recent activity; without them, all chats
+    @GetMapping("/tenant/{tenantId}")
+    public ResponseEntity<?> getTenantChats(
+            @PathVariable Long tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(chatService.getChats(tenantId, false, cursor, limit));
+            }
+            List<Chat> chats = chatRepository.findByTenantId(tenantId);
+            return ResponseEntity.ok(chats);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error fetching chats: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/landlord/{landlordId}")
+    public ResponseEntity<?> getLandlordChats(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(chatService.getChats(landlordId, true, cursor, limit));
+            }
+            List<Chat> chats = chatRepository.findByLandlordId(landlordId);
+            return ResponseEntity.ok(chats);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error fetching chats: " + e.getMessage());
+        }
+    }
+
+    // Unread message counts of every chat of the user, and their total, from maintained counters
+    @GetMapping("/unread")
+    public ResponseEntity<?> getUnreadCounts(@RequestParam Long userId) {
+        try {
+            return ResponseEntity.ok(unreadCounters.counts(userId));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error fetching unread counts: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{chatId}/read")
+    public ResponseEntity<?> markRead(@PathVariable Long chatId, @RequestParam Long userId) {
+        try {
+            return ResponseEntity.ok(Map.of("read", chatService.markRead(chatId, userId)));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error marking messages read: " + e.getMessage());
+        }
+    }
+
+    // With before, after or limit, returns one keyset page of slim messages; without them, the full history
+    @GetMapping("/{chatId}/messages")
+    public ResponseEntity<?> getChatMessages(
+            @PathVariable Long chatId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (before != null || after != null || limit != null) {
+                return ResponseEntity.ok(chatService.getMessages(chatId, before, after, limit));
+            }
+            List<Message> messages = messageRepository.findByChatIdOrderByTimestampAsc(chatId);
+            return ResponseEntity.ok(messages);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error fetching messages: " + e.getMessage());
+        }
+    }
+
+    // New messages of the chat as server-sent events, pushed once committed; reconnects resume from
+    // Last-Event-ID. The REST endpoints remain for clients that cannot keep a stream open.
+    @GetMapping(value = "/{chatId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamMessages(
+            @PathVariable Long chatId,
+            @RequestParam Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            SseEmitter emitter = chatMessageStream.subscribe(chatId, userId, lastEventId);
+            return ResponseEntity.ok(emitter);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{chatId}/messages")
+    public ResponseEntity<?> sendMessage(
+            @PathVariable Long chatId,
+            @RequestBody Map<String, Object> request) {
+        try {
+            String content = (String) request.get("content");
+            Long senderId = Long.valueOf(request.get("senderId").toString());
+            Long receiverId = Long.valueOf(request.get("receiverId").toString());
+
+            if (content == null || content.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Message content cannot be empty");
+            }
+
+            // With chat.ingest.enabled the message is acknowledged once logged and stored in the next batch
+            if (ingestPipeline.isEnabled()) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ingestPipeline.submit(chatId, senderId, receiverId, content));
+            }
+            return ResponseEntity.ok(chatService.sendMessage(chatId, senderId, receiverId, content));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error sending message: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
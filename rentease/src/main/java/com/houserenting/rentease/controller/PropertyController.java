@@ -1,15 +1,36 @@
 package com.houserenting.rentease.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.houserenting.rentease.dto.PriceDistribution;
+import com.houserenting.rentease.dto.PropertyAvailability;
+import com.houserenting.rentease.dto.PropertyFacets;
+import com.houserenting.rentease.dto.PropertyImportResult;
 import com.houserenting.rentease.dto.PropertyRequest;
 import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.repository.PropertyRepository;
+import com.houserenting.rentease.service.PropertyCatalogVersion;
+import com.houserenting.rentease.service.PropertyImportService;
 import com.houserenting.rentease.service.PropertyService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -17,6 +38,16 @@ import java.util.Map;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyCatalogVersion catalogVersion;
+    private final PropertyImportService propertyImportService;
+    private final ObjectMapper objectMapper;
+
+    // Conditional GET support: validators are checked before any listing or entity is loaded, and a
+    // matching If-None-Match / If-Modified-Since answers 304 with no body
+    private boolean catalogNotModified(WebRequest webRequest) {
+        PropertyCatalogVersion.Validators validators = catalogVersion.current();
+        return webRequest.checkNotModified(validators.getETag(), validators.getLastModified());
+    }
 
     @GetMapping("/my")
     public ResponseEntity<List<PropertyResponse>> getMyProperties(@RequestParam Long landlord) {
@@ -31,41 +62,171 @@ public class PropertyController {
         return ResponseEntity.ok(propertyService.createProperty(request, images, landlordId));
     }
 
+    // Bulk import: one property per line (NDJSON), or CSV with a header row naming PropertyRequest fields
+    // (amenities and utilitiesIncluded as ';' separated lists). Invalid rows are reported, not fatal.
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<PropertyImportResult> importProperties(
+            @RequestParam Long landlordId,
+            HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        return ResponseEntity.ok(propertyImportService.importProperties(request.getInputStream(), csv, landlordId));
+    }
+
+    // Listing endpoints return the full list unless a cursor or size is given, in which case they return a PropertyPage
+
     @GetMapping("/landlord/{landlordId}")
-    public ResponseEntity<List<PropertyResponse>> getPropertiesByLandlord(@PathVariable Long landlordId) {
-        return ResponseEntity.ok(propertyService.getPropertiesByLandlord(landlordId));
+    public ResponseEntity<?> getPropertiesByLandlord(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(propertyService.getPropertiesByLandlord(landlordId));
+        }
+        return ResponseEntity.ok(propertyService.getPropertiesByLandlord(landlordId, cursor, sort, size));
     }
 
     @GetMapping("/{propertyId}")
-    public ResponseEntity<PropertyResponse> getPropertyById(@PathVariable Long propertyId) {
+    public ResponseEntity<PropertyResponse> getPropertyById(@PathVariable Long propertyId, WebRequest webRequest) {
+        Optional<PropertyRepository.VersionView> version = propertyService.getPropertyVersion(propertyId);
+        if (version.isPresent()) {
+            String eTag = "\"property-" + propertyId + "-v" + version.get().getVersion() + "\"";
+            long lastModified = version.get().getUpdatedAt() != null
+                    ? version.get().getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : -1;
+            if (webRequest.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+        }
         return ResponseEntity.ok(propertyService.getPropertyById(propertyId));
     }
 
+    // Free and busy date ranges (end exclusive) from approved bookings and availableFrom; defaults to 90 days from today
+    @GetMapping("/{propertyId}/availability")
+    public ResponseEntity<PropertyAvailability> getAvailability(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(propertyService.getAvailability(propertyId, from, to));
+    }
+
     @GetMapping
-    public ResponseEntity<List<PropertyResponse>> getAllProperties() {
-        return ResponseEntity.ok(propertyService.getAllProperties());
+    public ResponseEntity<?> getAllProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(propertyService.getAllProperties());
+        }
+        return ResponseEntity.ok(propertyService.getAllProperties(cursor, sort, size));
+    }
+
+    // Whole catalog (optionally one status) as NDJSON, one property per line, written as rows are read
+    // from the database instead of building the list and the JSON body in memory
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProperties(
+            @RequestParam(required = false) PropertyStatus status) {
+        ObjectWriter writer = objectMapper.writerFor(PropertyResponse.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                propertyService.streamProperties(status, chunk -> {
+                    try {
+                        for (PropertyResponse property : chunk) {
+                            writer.writeValue(generator, property);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<PropertyResponse>> getAvailableProperties() {
-        return ResponseEntity.ok(propertyService.getAllAvailableProperties());
+    public ResponseEntity<?> getAvailableProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(propertyService.getAllAvailableProperties());
+        }
+        return ResponseEntity.ok(propertyService.getApprovedProperties(cursor, sort, size));
     }
 
     @GetMapping("/approved")
-    public ResponseEntity<List<PropertyResponse>> getApprovedProperties() {
-        return ResponseEntity.ok(propertyService.getApprovedProperties());
+    public ResponseEntity<?> getApprovedProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(propertyService.getApprovedProperties());
+        }
+        return ResponseEntity.ok(propertyService.getApprovedProperties(cursor, sort, size));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<PropertyResponse>> searchProperties(
+    public ResponseEntity<?> searchProperties(
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String propertyType,
             @RequestParam(required = false) Integer bedrooms,
             @RequestParam(required = false) Boolean available,
-            @RequestParam(required = false) Long landlordId) {
-        return ResponseEntity.ok(propertyService.searchProperties(
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        // Date filters depend on bookings, which the catalog validators do not cover
+        boolean dated = availableFrom != null || availableTo != null;
+        if (!dated && catalogNotModified(webRequest)) {
+            return null;
+        }
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(propertyService.searchProperties(location, minPrice, maxPrice, propertyType,
+                    bedrooms, available, landlordId, availableFrom, availableTo));
+        }
+        return ResponseEntity.ok(propertyService.searchProperties(location, minPrice, maxPrice, propertyType,
+                bedrooms, available, landlordId, availableFrom, availableTo, cursor, sort, size));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<PropertyFacets> getFacets(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Long landlordId,
+            WebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok(propertyService.getFacets(
                 location, minPrice, maxPrice, propertyType, bedrooms, available, landlordId));
     }
 
@@ -79,8 +240,17 @@ public class PropertyController {
 
     @GetMapping("/price-distribution")
     public ResponseEntity<List<Map<String, Object>>> getPropertyPriceDistribution(
-            @RequestParam Long landlordId) {
-        return ResponseEntity.ok(propertyService.getPropertyPriceDistribution(landlordId));
+            @RequestParam Long landlordId,
+            @RequestParam(required = false) Double bucketWidth) {
+        return ResponseEntity.ok(propertyService.getPropertyPriceDistribution(landlordId, bucketWidth));
+    }
+
+    @GetMapping("/price-histogram")
+    public ResponseEntity<PriceDistribution> getPriceHistogram(
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Double bucketWidth) {
+        return ResponseEntity.ok(propertyService.getPriceDistribution(landlordId, city, bucketWidth));
     }
 
     @PutMapping("/{propertyId}")
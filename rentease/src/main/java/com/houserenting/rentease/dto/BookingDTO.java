@@ -1,13 +1,39 @@
 package com.houserenting.rentease.dto;
 
+import com.houserenting.rentease.model.BookingStatus;
+
 import java.time.LocalDate;
 
 public class BookingDTO {
     private Long id;
     private Long propertyId;
+    private String propertyTitle;
+    private String propertyMainPhoto;
     private Long tenantId;
+    private String tenantName;
     private LocalDate startDate;
     private LocalDate endDate;
+    private String status;
+    private LocalDate createdAt;
+
+    public BookingDTO() {
+    }
+
+    // Used by the JPQL constructor projections in BookingRepository
+    public BookingDTO(Long id, Long propertyId, String propertyTitle, String propertyMainPhoto, Long tenantId,
+            String tenantFirstName, String tenantLastName, LocalDate startDate, LocalDate endDate,
+            BookingStatus status, LocalDate createdAt) {
+        this.id = id;
+        this.propertyId = propertyId;
+        this.propertyTitle = propertyTitle;
+        this.propertyMainPhoto = propertyMainPhoto;
+        this.tenantId = tenantId;
+        this.tenantName = tenantFirstName + " " + tenantLastName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status != null ? status.name() : null;
+        this.createdAt = createdAt;
+    }
 
     // Getters and setters
     public Long getId() {
@@ -26,6 +52,22 @@ public class BookingDTO {
         this.propertyId = propertyId;
     }
 
+    public String getPropertyTitle() {
+        return propertyTitle;
+    }
+
+    public void setPropertyTitle(String propertyTitle) {
+        this.propertyTitle = propertyTitle;
+    }
+
+    public String getPropertyMainPhoto() {
+        return propertyMainPhoto;
+    }
+
+    public void setPropertyMainPhoto(String propertyMainPhoto) {
+        this.propertyMainPhoto = propertyMainPhoto;
+    }
+
     public Long getTenantId() {
         return tenantId;
     }
@@ -34,6 +76,14 @@ public class BookingDTO {
         this.tenantId = tenantId;
     }
 
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public void setTenantName(String tenantName) {
+        this.tenantName = tenantName;
+    }
+
     public LocalDate getStartDate() {
         return startDate;
     }
@@ -50,6 +100,19 @@ public class BookingDTO {
         this.endDate = endDate;
     }
 
-    public void setStatus(String name) {
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDate createdAt) {
+        this.createdAt = createdAt;
     }
 }
@@ -0,0 +1,17 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingInbox {
+    private List<BookingDTO> content;
+    private String nextCursor; // null on the last page
+    private Map<String, Long> counts; // bookings per status across all of the landlord's properties
+}
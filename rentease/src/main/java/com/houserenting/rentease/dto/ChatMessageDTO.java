@@ -0,0 +1,20 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A message without its chat and user entities, selected directly by JPQL constructor queries
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageDTO {
+    private Long id;
+    private Long chatId;
+    private Long senderId;
+    private Long receiverId;
+    private String content;
+    private LocalDateTime timestamp;
+    private boolean read;
+}
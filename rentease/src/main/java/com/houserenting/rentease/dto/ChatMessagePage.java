@@ -0,0 +1,16 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// One page of a chat's history in ascending id order. hasMore says whether further messages exist in the
+// direction that was paged (older for the latest page and "before", newer for "after").
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessagePage {
+    private List<ChatMessageDTO> messages;
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A chat list row: the participants and property by id and name, and a preview of the latest message
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSummaryDTO {
+    private Long id;
+    private Long propertyId;
+    private String propertyTitle;
+    private Long tenantId;
+    private String tenantName;
+    private Long landlordId;
+    private String landlordName;
+    private Long lastMessageId;
+    private String lastMessageSnippet;
+    private LocalDateTime lastMessageAt;
+    private Long lastMessageSenderId;
+    private LocalDateTime lastActivityAt;
+}
@@ -0,0 +1,15 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// One page of a chat list, most recently active first; nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSummaryPage {
+    private List<ChatSummaryDTO> chats;
+    private String nextCursor;
+}
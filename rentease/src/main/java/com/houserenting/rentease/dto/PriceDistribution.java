@@ -0,0 +1,14 @@
+package com.houserenting.rentease.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class PriceDistribution {
+    private long total;
+    private double bucketWidth;
+    private List<Map<String, Object>> buckets; // {price: bucket lower bound, count}
+    private Map<String, Double> quantiles; // p25, p50, p75, p95
+}
@@ -0,0 +1,26 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class PropertyAvailability {
+    private Long propertyId;
+    private LocalDate from;
+    private LocalDate to; // exclusive
+    private List<DateRange> free = new ArrayList<>();
+    private List<DateRange> busy = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateRange {
+        private LocalDate start;
+        private LocalDate end; // exclusive
+    }
+}
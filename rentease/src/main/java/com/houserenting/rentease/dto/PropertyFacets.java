@@ -0,0 +1,27 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class PropertyFacets {
+    private long total;
+    private Map<String, Long> city;
+    private Map<String, Long> type;
+    private Map<Integer, Long> bedrooms;
+    private Map<String, Long> furnished;
+    private List<PriceBucket> price;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private double min;
+        private Double max; // null for the open-ended top bucket
+        private long count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class PropertyImportResult {
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>(); // capped, failed still counts every row
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String error;
+    }
+}
@@ -0,0 +1,15 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyPage {
+    private List<PropertyResponse> content;
+    private String nextCursor; // null on the last page
+}
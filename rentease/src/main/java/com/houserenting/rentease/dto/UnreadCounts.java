@@ -0,0 +1,15 @@
+package com.houserenting.rentease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+// A user's unread messages: per chat id (chats with none are left out) and in total
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCounts {
+    private Map<Long, Long> chats;
+    private long total;
+}
@@ -0,0 +1,22 @@
+package com.houserenting.rentease.event;
+
+import com.houserenting.rentease.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Published by BookingService whenever a booking is created or changes status.
+// Listeners run after the surrounding transaction commits. tenantId and landlordId say who the change concerns;
+// they are null on events rebuilt from stored ranges.
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private final Long bookingId;
+    private final Long propertyId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BookingStatus status;
+    private final Long tenantId;
+    private final Long landlordId;
+}
@@ -0,0 +1,12 @@
+package com.houserenting.rentease.event;
+
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by ChatService when a message is saved; listeners run after the transaction commits
+@Getter
+@AllArgsConstructor
+public class MessageSentEvent {
+    private final ChatMessageDTO message;
+}
@@ -0,0 +1,12 @@
+package com.houserenting.rentease.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by ChatService when a user reads a chat; listeners run after the transaction commits
+@Getter
+@AllArgsConstructor
+public class MessagesReadEvent {
+    private final Long chatId;
+    private final Long userId;
+}
@@ -0,0 +1,18 @@
+package com.houserenting.rentease.event;
+
+import com.houserenting.rentease.dto.PropertyResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by PropertyService whenever a property is created, updated or deleted.
+// Listeners run after the surrounding transaction commits.
+@Getter
+@AllArgsConstructor
+public class PropertyChangedEvent {
+    private final Long propertyId;
+    private final PropertyResponse snapshot; // null when the property was deleted
+
+    public boolean isDeleted() {
+        return snapshot == null;
+    }
+}
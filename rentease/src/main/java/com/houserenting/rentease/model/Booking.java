@@ -5,10 +5,15 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        // Per-property status scans for the landlord inbox and its per-status counts
+        @Index(name = "idx_booking_property_status_created", columnList = "property_id, status, createdAt")
+})
 @Data
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
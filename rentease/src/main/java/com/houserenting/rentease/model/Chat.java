@@ -0,0 +1,67 @@
+package com.houserenting.rentease.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        // Chat lists by recency, per participant
+        @Index(name = "idx_chat_tenant_activity", columnList = "tenant_id, lastActivityAt, id"),
+        @Index(name = "idx_chat_landlord_activity", columnList = "landlord_id, lastActivityAt, id")
+})
+@Data
+public class Chat {
+    public static final int SNIPPET_LENGTH = 140;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_seq")
+    @SequenceGenerator(name = "chat_seq", sequenceName = "chat_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "property_id")
+    private Property property;
+
+    @ManyToOne
+    @JoinColumn(name = "tenant_id")
+    private User tenant;
+
+    @ManyToOne
+    @JoinColumn(name = "landlord_id")
+    private User landlord;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Preview of the latest message, kept up to date by ChatService.sendMessage
+    private Long lastMessageId;
+    private String lastMessageSnippet;
+    private LocalDateTime lastMessageAt;
+    private Long lastMessageSenderId;
+
+    // Time of the latest message, or of creation for a chat without messages; the chat list's sort key
+    private LocalDateTime lastActivityAt;
+
+    // Last Message.chatSeq handed out in this chat
+    private Long messageSeq;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        lastActivityAt = createdAt;
+        messageSeq = 0L;
+    }
+
+    // Reserves the next position for a message; the caller must hold the chat's row lock
+    public long nextMessageSeq() {
+        messageSeq = (messageSeq == null ? 0 : messageSeq) + 1;
+        return messageSeq;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
\ No newline at end of file
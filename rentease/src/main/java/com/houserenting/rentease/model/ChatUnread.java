@@ -0,0 +1,36 @@
+package com.houserenting.rentease.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+// Unread message count of one user in one chat, maintained as messages are sent and read
+@Entity
+@Table(name = "chat_unread", indexes = {
+        // All of a user's counters in one scan
+        @Index(name = "idx_chat_unread_user", columnList = "user_id")
+})
+@IdClass(ChatUnread.Key.class)
+@Data
+@NoArgsConstructor
+public class ChatUnread {
+    @Id
+    @Column(name = "chat_id")
+    private Long chatId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long unread;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long chatId;
+        private Long userId;
+    }
+}
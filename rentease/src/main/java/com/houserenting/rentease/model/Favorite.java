@@ -7,7 +7,8 @@ import lombok.Data;
 @Data
 public class Favorite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorite_seq")
+    @SequenceGenerator(name = "favorite_seq", sequenceName = "favorite_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -1,14 +1,19 @@
-package com.rentease.model;
+package com.houserenting.rentease.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
+// History is read by keyset over (chat_id, chatSeq)
 @Entity
+@Table(indexes = @Index(name = "idx_message_chat_seq", columnList = "chat_id, chatSeq"))
 @Data
 public class Message {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_seq")
+    @SequenceGenerator(name = "message_seq", sequenceName = "message_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -26,6 +31,10 @@ public class Message {
     @JoinColumn(name = "receiver_id")
     private User receiver;
 
+    // Position in the chat, taken from Chat.messageSeq under the chat's row lock, so it follows commit order;
+    // ids come from pooled blocks and do not
+    private Long chatSeq;
+
     private LocalDateTime timestamp;
     private boolean isRead;
 
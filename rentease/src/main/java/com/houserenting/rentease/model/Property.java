@@ -2,18 +2,39 @@ package com.houserenting.rentease.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        // Composite indexes backing keyset pagination on (sort key, id) per listing scope
+        @Index(name = "idx_property_price_id", columnList = "price, id"),
+        @Index(name = "idx_property_available_from_id", columnList = "availableFrom, id"),
+        @Index(name = "idx_property_status_id", columnList = "status, id"),
+        @Index(name = "idx_property_status_price_id", columnList = "status, price, id"),
+        @Index(name = "idx_property_status_available_from_id", columnList = "status, availableFrom, id"),
+        @Index(name = "idx_property_landlord_id", columnList = "landlord_id, id"),
+        @Index(name = "idx_property_landlord_price_id", columnList = "landlord_id, price, id"),
+        @Index(name = "idx_property_landlord_available_from_id", columnList = "landlord_id, availableFrom, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @Builder
 public class Property {
 
+    // Ids come from property_seq in blocks of this size (pooled optimizer), which keeps inserts batchable;
+    // code reserving ids outside Hibernate must take them in the same blocks
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "property_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // Basic Information
@@ -38,12 +59,14 @@ public class Property {
 
     // Amenities
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> amenities;
 
     // Media
     @Column(name = "main_photo")
     private String mainPhoto;
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "property_additional_photos", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "photo_url")
     private List<String> additionalPhotos = new ArrayList<>();
@@ -55,6 +78,7 @@ public class Property {
     private LocalDate availableFrom;
     private int minLeaseMonths;
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> utilitiesIncluded;
 
     // Rules & Preferences
@@ -72,6 +96,19 @@ public class Property {
     @Column(nullable = false)
     private PropertyStatus status = PropertyStatus.PENDING;
 
+    // Optimistic lock version, also the basis of the property ETag; existing rows start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // Add image to additional photos list
     // Add image to additional photos list
     public void addImage(String imageUrl) {
@@ -357,7 +394,8 @@ public class Property {
             String city, String district, int bedrooms, double bathrooms, double area, int yearBuilt, int parkingSpaces,
             String furnished, List<String> amenities, String mainPhoto, List<String> additionalPhotos, String videoUrl,
             double price, double deposit, LocalDate availableFrom, int minLeaseMonths, List<String> utilitiesIncluded,
-            String pets, String smoking, String events, int maxOccupants, User landlord, PropertyStatus status) {
+            String pets, String smoking, String events, int maxOccupants, User landlord, PropertyStatus status,
+            long version, LocalDateTime updatedAt) {
         this.id = id;
         this.title = title;
         this.type = type;
@@ -387,6 +425,8 @@ public class Property {
         this.maxOccupants = maxOccupants;
         this.landlord = landlord;
         this.status = status;
+        this.version = version;
+        this.updatedAt = updatedAt;
     }
 
     // Constructor, getters, setters...
@@ -1,14 +1,52 @@
 package com.houserenting.rentease.repository;
 
+import com.houserenting.rentease.dto.BookingDTO;
 import com.houserenting.rentease.model.Booking;
 import com.houserenting.rentease.model.BookingStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    interface BookingRange {
+        Long getId();
+
+        Long getPropertyId();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+
+        BookingStatus getStatus();
+    }
+
+    // Booking listings project straight into BookingDTO, joining only the property and tenant columns they show
+    String DTO_SELECT = "SELECT new com.houserenting.rentease.dto.BookingDTO(b.id, p.id, p.title, p.mainPhoto, " +
+            "t.id, t.firstName, t.lastName, b.startDate, b.endDate, b.status, b.createdAt) " +
+            "FROM Booking b JOIN b.property p JOIN b.tenant t ";
+
+    @Query(DTO_SELECT + "WHERE t.id = :tenantId ORDER BY b.id DESC")
+    List<BookingDTO> findDtosByTenantId(@Param("tenantId") Long tenantId);
+
+    @Query(DTO_SELECT + "WHERE p.id = :propertyId ORDER BY b.id DESC")
+    List<BookingDTO> findDtosByPropertyId(@Param("propertyId") Long propertyId);
+
+    @Query(DTO_SELECT + "WHERE b.status = :status ORDER BY b.id DESC")
+    List<BookingDTO> findDtosByStatus(@Param("status") BookingStatus status);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.property.landlord.id = :landlordId GROUP BY b.status")
+    List<Object[]> countByLandlordIdGroupByStatus(@Param("landlordId") Long landlordId);
+
     List<Booking> findByTenantId(Long tenantId);
 
     List<Booking> findByPropertyId(Long propertyId);
@@ -18,4 +56,34 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByPropertyIdAndStatus(Long propertyId, BookingStatus status);
 
     boolean existsByPropertyIdAndTenantIdAndStatus(Long propertyId, Long tenantId, BookingStatus status);
+
+    // Row lock for status changes, so a concurrent expiry or rejection batch (which skips locked rows) cannot
+    // change the booking between the checks and the update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT b.property.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findPropertyIdById(@Param("id") Long id);
+
+    // Half-open [startDate, endDate) overlap, used until BookingIntervalIndex is warmed
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.property.id = :propertyId AND b.status = :status " +
+            "AND b.startDate < :endDate AND b.endDate > :startDate")
+    boolean existsOverlapping(@Param("propertyId") Long propertyId, @Param("status") BookingStatus status,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT DISTINCT b.property.id FROM Booking b WHERE b.property.id IN :propertyIds " +
+            "AND b.status = :status AND b.startDate < :endDate AND b.endDate > :startDate")
+    List<Long> findPropertyIdsWithOverlapping(@Param("propertyIds") Collection<Long> propertyIds,
+            @Param("status") BookingStatus status, @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate, " +
+            "b.status AS status FROM Booking b WHERE b.status IN :statuses")
+    List<BookingRange> findRangesByStatusIn(@Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate, " +
+            "b.status AS status FROM Booking b WHERE b.property.id = :propertyId AND b.status = :status")
+    List<BookingRange> findRangesByPropertyIdAndStatus(@Param("propertyId") Long propertyId,
+            @Param("status") BookingStatus status);
 }
@@ -0,0 +1,13 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.dto.BookingDTO;
+import com.houserenting.rentease.model.BookingStatus;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    // Keyset page of bookings across all of a landlord's properties, newest (highest id) first; status is an
+    // optional scope and beforeId is null for page 1
+    List<BookingDTO> findLandlordInbox(Long landlordId, BookingStatus status, Long beforeId, int limit);
+}
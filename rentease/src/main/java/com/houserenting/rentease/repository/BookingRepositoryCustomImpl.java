@@ -0,0 +1,40 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.dto.BookingDTO;
+import com.houserenting.rentease.model.BookingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDTO> findLandlordInbox(Long landlordId, BookingStatus status, Long beforeId, int limit) {
+        // One join through property.landlord_id; predicates are only added when present so the planner can use
+        // idx_property_landlord_id and idx_booking_property_status_created
+        StringBuilder jpql = new StringBuilder(BookingRepository.DTO_SELECT)
+                .append("WHERE p.landlord.id = :landlordId");
+        if (status != null) {
+            jpql.append(" AND b.status = :status");
+        }
+        if (beforeId != null) {
+            jpql.append(" AND b.id < :beforeId");
+        }
+        jpql.append(" ORDER BY b.id DESC");
+
+        TypedQuery<BookingDTO> query = entityManager.createQuery(jpql.toString(), BookingDTO.class)
+                .setParameter("landlordId", landlordId);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (beforeId != null) {
+            query.setParameter("beforeId", beforeId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
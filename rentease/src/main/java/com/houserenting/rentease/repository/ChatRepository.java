@@ -0,0 +1,73 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.dto.ChatSummaryDTO;
+import com.houserenting.rentease.model.Chat;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatRepository extends JpaRepository<Chat, Long> {
+    String SUMMARY_SELECT = "SELECT new com.houserenting.rentease.dto.ChatSummaryDTO(c.id, p.id, p.title, t.id, "
+            + "CONCAT(t.firstName, ' ', t.lastName), l.id, CONCAT(l.firstName, ' ', l.lastName), c.lastMessageId, "
+            + "c.lastMessageSnippet, c.lastMessageAt, c.lastMessageSenderId, c.lastActivityAt) "
+            + "FROM Chat c JOIN c.property p JOIN c.tenant t JOIN c.landlord l ";
+    String AFTER_CURSOR = "AND (c.lastActivityAt < :activityAt OR (c.lastActivityAt = :activityAt AND c.id < :id)) ";
+    String BY_ACTIVITY = "ORDER BY c.lastActivityAt DESC, c.id DESC";
+
+    List<Chat> findByTenantId(Long tenantId);
+
+    List<Chat> findByLandlordId(Long landlordId);
+
+    Chat findByPropertyIdAndTenantIdAndLandlordId(Long propertyId, Long tenantId, Long landlordId);
+
+    // Held by a send until it commits, so the chat's messages are numbered in commit order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Chat c WHERE c.id = :id")
+    Optional<Chat> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE c.tenant.id = :userId " + BY_ACTIVITY)
+    List<ChatSummaryDTO> findTenantSummaries(@Param("userId") Long userId, Pageable page);
+
+    @Query(SUMMARY_SELECT + "WHERE c.tenant.id = :userId " + AFTER_CURSOR + BY_ACTIVITY)
+    List<ChatSummaryDTO> findTenantSummariesAfter(@Param("userId") Long userId,
+            @Param("activityAt") LocalDateTime activityAt, @Param("id") Long id, Pageable page);
+
+    @Query(SUMMARY_SELECT + "WHERE c.landlord.id = :userId " + BY_ACTIVITY)
+    List<ChatSummaryDTO> findLandlordSummaries(@Param("userId") Long userId, Pageable page);
+
+    @Query(SUMMARY_SELECT + "WHERE c.landlord.id = :userId " + AFTER_CURSOR + BY_ACTIVITY)
+    List<ChatSummaryDTO> findLandlordSummariesAfter(@Param("userId") Long userId,
+            @Param("activityAt") LocalDateTime activityAt, @Param("id") Long id, Pageable page);
+
+    // Never moves the preview back to an older message when sends of one chat commit out of order; messages are
+    // compared by (sent time, id), since ids from different pooled blocks say nothing about which came later
+    @Modifying
+    @Query("UPDATE Chat c SET c.lastMessageId = :messageId, c.lastMessageSnippet = :snippet, "
+            + "c.lastMessageAt = :sentAt, c.lastMessageSenderId = :senderId, c.lastActivityAt = :sentAt, "
+            + "c.updatedAt = :sentAt "
+            + "WHERE c.id = :chatId AND (c.lastMessageAt IS NULL OR c.lastMessageAt < :sentAt "
+            + "OR (c.lastMessageAt = :sentAt AND c.lastMessageId < :messageId))")
+    int updateLastMessage(@Param("chatId") Long chatId, @Param("messageId") Long messageId,
+            @Param("snippet") String snippet, @Param("sentAt") LocalDateTime sentAt, @Param("senderId") Long senderId);
+
+    // One-off fill of the preview columns for chats created before they existed
+    @Modifying
+    @Query(value = "UPDATE chat c SET lastMessageId = m.id, lastMessageSnippet = LEFT(m.content, "
+            + Chat.SNIPPET_LENGTH + "), lastMessageAt = m.timestamp, lastMessageSenderId = m.sender_id, "
+            + "lastActivityAt = m.timestamp "
+            + "FROM (SELECT DISTINCT ON (chat_id) id, chat_id, content, timestamp, sender_id FROM message "
+            + "ORDER BY chat_id, id DESC) m WHERE m.chat_id = c.id AND c.lastActivityAt IS NULL", nativeQuery = true)
+    int backfillLastMessages();
+
+    @Modifying
+    @Query(value = "UPDATE chat SET lastActivityAt = COALESCE(createdAt, now()) WHERE lastActivityAt IS NULL",
+            nativeQuery = true)
+    int backfillActivity();
+}
@@ -0,0 +1,34 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.model.ChatUnread;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatUnreadRepository extends JpaRepository<ChatUnread, ChatUnread.Key> {
+    List<ChatUnread> findByUserIdAndUnreadGreaterThan(Long userId, long unread);
+
+    @Query("SELECT u.unread FROM ChatUnread u WHERE u.chatId = :chatId AND u.userId = :userId")
+    Optional<Long> findUnread(@Param("chatId") Long chatId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO chat_unread (chat_id, user_id, unread) VALUES (:chatId, :userId, 1) "
+            + "ON CONFLICT (chat_id, user_id) DO UPDATE SET unread = chat_unread.unread + 1", nativeQuery = true)
+    void increment(@Param("chatId") Long chatId, @Param("userId") Long userId);
+
+    // Takes off only the messages the read covered; one committed after the read's UPDATE stays counted
+    @Modifying
+    @Query(value = "UPDATE chat_unread SET unread = GREATEST(unread - :read, 0) "
+            + "WHERE chat_id = :chatId AND user_id = :userId", nativeQuery = true)
+    int decrement(@Param("chatId") Long chatId, @Param("userId") Long userId, @Param("read") long read);
+
+    // One-off seed from existing unread messages, used while the table is still empty
+    @Modifying
+    @Query(value = "INSERT INTO chat_unread (chat_id, user_id, unread) "
+            + "SELECT chat_id, receiver_id, COUNT(*) FROM message WHERE NOT isRead GROUP BY chat_id, receiver_id "
+            + "ON CONFLICT (chat_id, user_id) DO NOTHING", nativeQuery = true)
+    int seedFromMessages();
+}
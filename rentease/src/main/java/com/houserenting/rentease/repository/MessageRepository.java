@@ -0,0 +1,41 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import com.houserenting.rentease.model.Message;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+ 
+public interface MessageRepository extends JpaRepository<Message, Long> {
+    String DTO_SELECT = "SELECT new com.houserenting.rentease.dto.ChatMessageDTO(m.id, m.chat.id, m.sender.id, m.receiver.id, "
+            + "m.content, m.timestamp, m.isRead) FROM Message m ";
+
+    List<Message> findByChatIdOrderByTimestampAsc(Long chatId);
+    long countByChatIdAndReceiverIdAndIsReadFalse(Long chatId, Long receiverId);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.chat.id = :chatId AND m.receiver.id = :receiverId "
+            + "AND m.isRead = false")
+    int markRead(@Param("chatId") Long chatId, @Param("receiverId") Long receiverId);
+
+    // Cursors are message ids, but pages follow chatSeq: ids are taken from pooled blocks and a message can
+    // commit after one with a higher id, which an id cursor would skip for good
+    String AFTER = "AND m.chatSeq > (SELECT a.chatSeq FROM Message a WHERE a.id = :afterId) ";
+    String BEFORE = "AND m.chatSeq < (SELECT b.chatSeq FROM Message b WHERE b.id = :beforeId) ";
+
+    @Query(DTO_SELECT + "WHERE m.chat.id = :chatId " + AFTER + "ORDER BY m.chatSeq ASC")
+    List<ChatMessageDTO> findDtosAfter(@Param("chatId") Long chatId, @Param("afterId") Long afterId, Pageable page);
+
+    @Query(DTO_SELECT + "WHERE m.chat.id = :chatId ORDER BY m.chatSeq DESC")
+    List<ChatMessageDTO> findLatestDtos(@Param("chatId") Long chatId, Pageable page);
+
+    @Query(DTO_SELECT + "WHERE m.chat.id = :chatId " + BEFORE + "ORDER BY m.chatSeq DESC")
+    List<ChatMessageDTO> findDtosBefore(@Param("chatId") Long chatId, @Param("beforeId") Long beforeId, Pageable page);
+
+    @Query(DTO_SELECT + "WHERE m.chat.id = :chatId " + AFTER + BEFORE + "ORDER BY m.chatSeq ASC")
+    List<ChatMessageDTO> findDtosBetween(@Param("chatId") Long chatId, @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId, Pageable page);
+} 
@@ -3,21 +3,75 @@ package com.houserenting.rentease.repository;
 import com.houserenting.rentease.model.Property;
 import com.houserenting.rentease.model.PropertyStatus;
 import com.houserenting.rentease.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertyRepositoryCustom {
+
+        interface VersionView {
+                long getVersion();
+
+                LocalDateTime getUpdatedAt();
+        }
+
+        interface AvailabilityView {
+                LocalDate getAvailableFrom();
+        }
+
+        // Validator lookup for conditional GETs, reads two columns instead of the entity graph
+        @Query("SELECT p.version AS version, p.updatedAt AS updatedAt FROM Property p WHERE p.id = :id")
+        Optional<VersionView> findVersionById(@Param("id") Long id);
+
+        @Query("SELECT p.availableFrom AS availableFrom FROM Property p WHERE p.id = :id")
+        Optional<AvailabilityView> findAvailabilityById(@Param("id") Long id);
 
         List<Property> findByLandlord(User landlord);
 
+        @Override
+        @EntityGraph(attributePaths = "landlord")
+        List<Property> findAll();
+
+        @EntityGraph(attributePaths = "landlord")
         List<Property> findByStatus(PropertyStatus status);
 
+        @EntityGraph(attributePaths = "landlord")
         List<Property> findByLandlordId(Long landlordId);
 
+        // Server-side cursor for streamed listings: rows arrive fetch-size at a time as read-only entities and
+        // bypass the second-level cache. Must be consumed inside a transaction and closed.
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+        })
+        @Query("SELECT p FROM Property p LEFT JOIN FETCH p.landlord " +
+                        "WHERE (:status IS NULL OR p.status = :status) ORDER BY p.id")
+        Stream<Property> streamByStatus(@Param("status") PropertyStatus status);
+
+        // Batched element collection fetches for listing responses, one row per (property id, value)
+        @Query("SELECT p.id, a FROM Property p JOIN p.amenities a WHERE p.id IN :ids")
+        List<Object[]> findAmenitiesByPropertyIds(@Param("ids") Collection<Long> ids);
+
+        @Query("SELECT p.id, a FROM Property p JOIN p.additionalPhotos a WHERE p.id IN :ids")
+        List<Object[]> findAdditionalPhotosByPropertyIds(@Param("ids") Collection<Long> ids);
+
+        @Query("SELECT p.id, u FROM Property p JOIN p.utilitiesIncluded u WHERE p.id IN :ids")
+        List<Object[]> findUtilitiesIncludedByPropertyIds(@Param("ids") Collection<Long> ids);
+
+        @EntityGraph(attributePaths = "landlord")
         @Query("SELECT p FROM Property p " +
                         "WHERE (:location IS NULL OR p.city LIKE %:location% OR p.district LIKE %:location% OR p.neighborhood LIKE %:location%) "
                         +
@@ -36,9 +90,12 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
                         @Param("available") Boolean available,
                         @Param("landlordId") Long landlordId);
 
+        // Only used until PriceDistributionIndex is warmed
         @Query("SELECT p.price as price, COUNT(p) as count FROM Property p " +
-                        "WHERE p.landlord.id = :landlordId " +
+                        "WHERE (:landlordId IS NULL OR p.landlord.id = :landlordId) " +
+                        "AND (:city IS NULL OR p.city = :city) " +
                         "GROUP BY p.price " +
                         "ORDER BY p.price")
-        List<Map<String, Object>> getPropertyPriceDistribution(@Param("landlordId") Long landlordId);
+        List<Map<String, Object>> getPropertyPriceDistribution(@Param("landlordId") Long landlordId,
+                        @Param("city") String city);
 }
@@ -0,0 +1,14 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.util.PropertyCursor;
+
+import java.util.List;
+
+public interface PropertyRepositoryCustom {
+
+    // Keyset page ordered by (sort key, id); status and landlordId are optional scopes, after is null for page 1
+    List<Property> findPage(PropertyStatus status, Long landlordId, PropertyCursor.Sort sort, PropertyCursor after,
+            int limit);
+}
@@ -0,0 +1,74 @@
+package com.houserenting.rentease.repository;
+
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.util.PropertyCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class PropertyRepositoryCustomImpl implements PropertyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Property> findPage(PropertyStatus status, Long landlordId, PropertyCursor.Sort sort,
+            PropertyCursor after, int limit) {
+        String key;
+        switch (sort) {
+            case PRICE:
+                key = "p.price";
+                break;
+            case AVAILABLE_FROM:
+                key = "p.availableFrom";
+                break;
+            default:
+                key = null;
+        }
+
+        // Only predicates that match a composite index prefix are added, so each page is an index range scan
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Property p LEFT JOIN FETCH p.landlord WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND p.status = :status");
+        }
+        if (landlordId != null) {
+            jpql.append(" AND p.landlord.id = :landlordId");
+        }
+        // availableFrom may be null: those rows come last (the index order), so a dated cursor continues into
+        // them and a cursor on an undated row only moves forward by id
+        boolean afterNullKey = after != null && sort == PropertyCursor.Sort.AVAILABLE_FROM
+                && after.getAvailableFrom() == null;
+        if (after != null) {
+            if (key == null) {
+                jpql.append(" AND p.id > :afterId");
+            } else if (afterNullKey) {
+                jpql.append(" AND " + key + " IS NULL AND p.id > :afterId");
+            } else if (sort == PropertyCursor.Sort.AVAILABLE_FROM) {
+                jpql.append(" AND ((" + key + ", p.id) > (:afterKey, :afterId) OR " + key + " IS NULL)");
+            } else {
+                jpql.append(" AND (" + key + ", p.id) > (:afterKey, :afterId)");
+            }
+        }
+        jpql.append(key == null ? " ORDER BY p.id" : " ORDER BY " + key + " NULLS LAST, p.id");
+
+        TypedQuery<Property> query = entityManager.createQuery(jpql.toString(), Property.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (landlordId != null) {
+            query.setParameter("landlordId", landlordId);
+        }
+        if (after != null) {
+            query.setParameter("afterId", after.getId());
+            if (sort == PropertyCursor.Sort.PRICE) {
+                query.setParameter("afterKey", after.getPrice());
+            } else if (sort == PropertyCursor.Sort.AVAILABLE_FROM && !afterNullKey) {
+                query.setParameter("afterKey", after.getAvailableFrom());
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyAvailability;
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.model.BookingStatus;
+import com.houserenting.rentease.repository.BookingRepository;
+import com.houserenting.rentease.repository.PropertyRepository;
+import com.houserenting.rentease.util.IntervalTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Free/busy calendar per property: one bit per day (set = busy) over HORIZON_DAYS from today, derived from the
+// approved bookings in BookingIntervalIndex and the property's availableFrom. Bitmaps are built on first use
+// and kept in an LRU; an entry is rebuilt once the property's bookings or availableFrom have changed or the
+// day has rolled over. Windows outside the horizon are computed the same way without caching.
+@Component
+public class AvailabilityCalendar {
+
+    static final int HORIZON_DAYS = 731;
+
+    private final BookingIntervalIndex intervalIndex;
+    private final PropertySearchIndex searchIndex;
+    private final PropertyRepository propertyRepository;
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Entry> entries;
+
+    public AvailabilityCalendar(BookingIntervalIndex intervalIndex, PropertySearchIndex searchIndex,
+            PropertyRepository propertyRepository, BookingRepository bookingRepository,
+            @Value("${availability.cache.max-entries:10000}") int maxEntries) {
+        this.intervalIndex = intervalIndex;
+        this.searchIndex = searchIndex;
+        this.propertyRepository = propertyRepository;
+        this.bookingRepository = bookingRepository;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public PropertyAvailability availability(Long propertyId, LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("'to' must be after 'from'");
+        }
+        if (to.toEpochDay() - from.toEpochDay() > HORIZON_DAYS) {
+            throw new RuntimeException("Availability can be requested for at most " + HORIZON_DAYS + " days");
+        }
+        LocalDate availableFrom = availableFrom(propertyId);
+        long today = LocalDate.now().toEpochDay();
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        Entry entry = intervalIndex.isReady() && fromDay >= today && toDay <= today + HORIZON_DAYS
+                ? cached(propertyId, today, availableFrom)
+                : build(propertyId, fromDay, toDay, availableFrom);
+        return describe(propertyId, entry, fromDay, toDay);
+    }
+
+    private Entry cached(Long propertyId, long today, LocalDate availableFrom) {
+        long version = intervalIndex.version(propertyId);
+        synchronized (entries) {
+            Entry entry = entries.get(propertyId);
+            if (entry != null && entry.origin == today && entry.version == version
+                    && Objects.equals(entry.availableFrom, availableFrom)) {
+                return entry;
+            }
+        }
+        Entry built = build(propertyId, today, today + HORIZON_DAYS, availableFrom);
+        synchronized (entries) {
+            entries.put(propertyId, built);
+        }
+        return built;
+    }
+
+    private Entry build(Long propertyId, long startDay, long endDay, LocalDate availableFrom) {
+        BitSet days = new BitSet((int) (endDay - startDay));
+        if (availableFrom != null && availableFrom.toEpochDay() > startDay) {
+            days.set(0, (int) (Math.min(endDay, availableFrom.toEpochDay()) - startDay));
+        }
+        IntervalTree.Visitor markBusy = (id, start, end) -> days.set(
+                (int) (Math.max(start, startDay) - startDay), (int) (Math.min(end, endDay) - startDay));
+
+        long version;
+        if (intervalIndex.isReady()) {
+            version = intervalIndex.visit(propertyId, BookingStatus.APPROVED, startDay, endDay, markBusy);
+        } else {
+            version = -1;
+            for (BookingRepository.BookingRange range : bookingRepository
+                    .findRangesByPropertyIdAndStatus(propertyId, BookingStatus.APPROVED)) {
+                long start = range.getStartDate().toEpochDay();
+                long end = range.getEndDate().toEpochDay();
+                if (start < endDay && end > startDay) {
+                    markBusy.visit(range.getId(), start, end);
+                }
+            }
+        }
+        return new Entry(startDay, availableFrom, version, days);
+    }
+
+    private static PropertyAvailability describe(Long propertyId, Entry entry, long fromDay, long toDay) {
+        PropertyAvailability availability = new PropertyAvailability();
+        availability.setPropertyId(propertyId);
+        availability.setFrom(LocalDate.ofEpochDay(fromDay));
+        availability.setTo(LocalDate.ofEpochDay(toDay));
+
+        int end = (int) (toDay - entry.origin);
+        int i = (int) (fromDay - entry.origin);
+        while (i < end) {
+            boolean busy = entry.days.get(i);
+            int next = busy ? entry.days.nextClearBit(i) : entry.days.nextSetBit(i);
+            if (next < 0 || next > end) {
+                next = end;
+            }
+            PropertyAvailability.DateRange range = new PropertyAvailability.DateRange(
+                    LocalDate.ofEpochDay(entry.origin + i), LocalDate.ofEpochDay(entry.origin + next));
+            (busy ? availability.getBusy() : availability.getFree()).add(range);
+            i = next;
+        }
+        return availability;
+    }
+
+    private LocalDate availableFrom(Long propertyId) {
+        PropertyResponse snapshot = searchIndex.isReady() ? searchIndex.get(propertyId) : null;
+        if (snapshot != null) {
+            return snapshot.getAvailableFrom();
+        }
+        return propertyRepository.findAvailabilityById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found with id: " + propertyId))
+                .getAvailableFrom();
+    }
+
+    private static class Entry {
+        private final long origin;
+        private final LocalDate availableFrom;
+        private final long version;
+        private final BitSet days;
+
+        private Entry(long origin, LocalDate availableFrom, long version, BitSet days) {
+            this.origin = origin;
+            this.availableFrom = availableFrom;
+            this.version = version;
+            this.days = days;
+        }
+    }
+}
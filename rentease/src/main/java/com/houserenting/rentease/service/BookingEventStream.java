@@ -0,0 +1,123 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.event.BookingChangedEvent;
+import com.houserenting.rentease.util.SseChannel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Pushes booking changes to the tenant and landlord they concern over server-sent events. Changes arrive after
+// commit and are numbered and kept in a ring buffer, so a client reconnecting with Last-Event-ID gets what it
+// missed (or a "reset" event telling it to reload when that has already been overwritten). Subscribers are held
+// in an SseChannel keyed by user, which gives each a bounded queue so a slow client never blocks the
+// committing thread.
+@Component
+public class BookingEventStream {
+
+    private static final Entry RESET = new Entry(-1, null);
+
+    private final SseChannel<Long> channel;
+
+    // Event ids continue from the start time in microseconds, so ids from before a restart are never reused
+    private final Entry[] ring;
+    private final long firstId;
+    private long lastId;
+
+    public BookingEventStream(@Value("${booking.stream.buffer-size:256}") int bufferSize,
+            @Value("${booking.stream.ring-size:4096}") int ringSize,
+            @Value("${booking.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.channel = new SseChannel<>(bufferSize, timeoutMs);
+        this.ring = new Entry[ringSize];
+        this.firstId = System.currentTimeMillis() * 1000;
+        this.lastId = firstId;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final BookingChangedEvent event;
+
+        private Entry(long id, BookingChangedEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+
+        private boolean concerns(Long userId) {
+            return userId.equals(event.getTenantId()) || userId.equals(event.getLandlordId());
+        }
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        // Registering and replaying under the ring's lock orders the replay before any newer event
+        synchronized (ring) {
+            SseChannel<Long>.Subscriber subscriber = channel.subscribe(userId);
+            if (lastEventId != null) {
+                missedSince(lastEventId, userId).forEach(entry -> subscriber.offer(() -> toEvent(entry)));
+            }
+            return subscriber.getEmitter();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        synchronized (ring) {
+            Entry entry = new Entry(++lastId, event);
+            ring[(int) (entry.id % ring.length)] = entry;
+            channel.publish(event.getTenantId(), () -> toEvent(entry));
+            if (!Objects.equals(event.getLandlordId(), event.getTenantId())) {
+                channel.publish(event.getLandlordId(), () -> toEvent(entry));
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${booking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        channel.heartbeat();
+    }
+
+    public int subscriberCount() {
+        return channel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channel.close();
+    }
+
+    // Called holding the ring's lock
+    private List<Entry> missedSince(String lastEventId, Long userId) {
+        long from;
+        try {
+            from = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return List.of(RESET);
+        }
+        long oldest = Math.max(firstId + 1, lastId - ring.length + 1);
+        if (from < oldest - 1 || from > lastId) {
+            return List.of(RESET);
+        }
+        List<Entry> missed = new ArrayList<>();
+        for (long id = from + 1; id <= lastId; id++) {
+            Entry entry = ring[(int) (id % ring.length)];
+            if (entry.concerns(userId)) {
+                missed.add(entry);
+            }
+        }
+        return missed;
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Entry entry) {
+        if (entry == RESET) {
+            return SseEmitter.event().name("reset").data("");
+        }
+        return SseEmitter.event().id(String.valueOf(entry.id)).name("booking")
+                .data(entry.event, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,213 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.event.BookingChangedEvent;
+import com.houserenting.rentease.model.BookingStatus;
+import com.houserenting.rentease.repository.BookingRepository;
+import com.houserenting.rentease.util.IntervalTree;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Per-property interval trees of the [startDate, endDate) ranges of pending and approved bookings, answering
+// overlap checks in O(log n) instead of scanning a property's bookings. Kept in sync from booking changes;
+// the booking_no_overlap exclusion constraint remains the guarantee for approved ranges.
+@Component
+public class BookingIntervalIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<BookingStatus, Map<Long, IntervalTree>> trees = new EnumMap<>(BookingStatus.class);
+
+    // booking id -> the range last added to a tree, needed to remove it again
+    private final Map<Long, BookingChangedEvent> indexed = new HashMap<>();
+
+    // Per-property change stamps drawn from one counter, so a cached view of a property can tell it is stale;
+    // properties without a change since the last rebuild report the rebuild's stamp
+    private final Map<Long, Long> versions = new HashMap<>();
+    private long stamp = 0;
+    private long rebuildStamp = 0;
+
+    // Changes seen since beginRebuild, null when no rebuild is in progress
+    private List<BookingChangedEvent> duringRebuild;
+
+    private volatile boolean ready = false;
+
+    public BookingIntervalIndex() {
+        trees.put(BookingStatus.PENDING, new HashMap<>());
+        trees.put(BookingStatus.APPROVED, new HashMap<>());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Call before loading the ranges: a booking changing while they load may or may not be in them, so its event
+    // is applied again once they are in place
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The ranges could not be loaded; the trees stay as they are
+    public void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<BookingRepository.BookingRange> ranges) {
+        lock.writeLock().lock();
+        try {
+            indexed.clear();
+            trees.values().forEach(Map::clear);
+            versions.clear();
+            rebuildStamp = ++stamp;
+            for (BookingRepository.BookingRange range : ranges) {
+                add(new BookingChangedEvent(range.getId(), range.getPropertyId(), range.getStartDate(),
+                        range.getEndDate(), range.getStatus(), null, null));
+            }
+            if (duringRebuild != null) {
+                duringRebuild.forEach(this::apply);
+                duringRebuild = null;
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(BookingChangedEvent event) {
+        BookingChangedEvent previous = indexed.remove(event.getBookingId());
+        if (previous != null) {
+            remove(previous);
+            versions.put(previous.getPropertyId(), ++stamp);
+        }
+        add(event);
+        versions.put(event.getPropertyId(), ++stamp);
+    }
+
+    // Whether any booking of the property in the given status (PENDING or APPROVED) overlaps [start, end)
+    public boolean overlaps(Long propertyId, BookingStatus status, LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = tree(status, propertyId);
+            return tree != null && tree.overlaps(start.toEpochDay(), end.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The subset of propertyIds with an approved booking overlapping [start, end), checked under one lock
+    public Set<Long> booked(Collection<Long> propertyIds, LocalDate start, LocalDate end) {
+        long startDay = start.toEpochDay();
+        long endDay = end.toEpochDay();
+        Set<Long> booked = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, IntervalTree> approved = trees.get(BookingStatus.APPROVED);
+            for (Long propertyId : propertyIds) {
+                IntervalTree tree = approved.get(propertyId);
+                if (tree != null && tree.overlaps(startDay, endDay)) {
+                    booked.add(propertyId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return booked;
+    }
+
+    // Ids of the property's bookings in the given status (PENDING or APPROVED) overlapping [start, end)
+    public List<Long> overlapping(Long propertyId, BookingStatus status, LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = tree(status, propertyId);
+            return tree != null ? tree.overlapping(start.toEpochDay(), end.toEpochDay()) : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visits the property's bookings in the given status overlapping [startDay, endDay) (epoch days) and returns
+    // the property's version, both read under one lock so they agree
+    public long visit(Long propertyId, BookingStatus status, long startDay, long endDay,
+            IntervalTree.Visitor visitor) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = tree(status, propertyId);
+            if (tree != null) {
+                tree.forEachOverlapping(startDay, endDay, visitor);
+            }
+            return versions.getOrDefault(propertyId, rebuildStamp);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version(Long propertyId) {
+        lock.readLock().lock();
+        try {
+            return versions.getOrDefault(propertyId, rebuildStamp);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntervalTree tree(BookingStatus status, Long propertyId) {
+        Map<Long, IntervalTree> byProperty = trees.get(status);
+        return byProperty != null ? byProperty.get(propertyId) : null;
+    }
+
+    private void add(BookingChangedEvent booking) {
+        Map<Long, IntervalTree> byProperty = trees.get(booking.getStatus());
+        if (byProperty == null || booking.getStartDate() == null || booking.getEndDate() == null) {
+            return;
+        }
+        byProperty.computeIfAbsent(booking.getPropertyId(), id -> new IntervalTree())
+                .add(booking.getBookingId(), booking.getStartDate().toEpochDay(), booking.getEndDate().toEpochDay());
+        indexed.put(booking.getBookingId(), booking);
+    }
+
+    private void remove(BookingChangedEvent booking) {
+        Map<Long, IntervalTree> byProperty = trees.get(booking.getStatus());
+        IntervalTree tree = byProperty.get(booking.getPropertyId());
+        if (tree != null) {
+            tree.remove(booking.getBookingId(), booking.getStartDate().toEpochDay());
+            if (tree.isEmpty()) {
+                byProperty.remove(booking.getPropertyId());
+            }
+        }
+    }
+}
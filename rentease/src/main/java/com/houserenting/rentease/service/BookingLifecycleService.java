@@ -0,0 +1,108 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.event.BookingChangedEvent;
+import com.houserenting.rentease.model.Booking;
+import com.houserenting.rentease.model.BookingStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Booking state transitions applied in bulk: stale PENDING requests expire on a schedule, and approving a booking
+// rejects the pending requests it overlaps. Both are single set-based UPDATEs that return the changed rows, so the
+// in-memory indexes are updated through BookingChangedEvent without loading entities. Only PENDING rows are
+// touched, through the partial index idx_booking_pending, so cost follows the open requests, not the history.
+@Service
+public class BookingLifecycleService {
+
+    private static final String RETURNING = " RETURNING id, property_id, startDate, endDate, tenant_id, "
+            + "(SELECT landlord_id FROM property WHERE property.id = booking.property_id) AS landlord_id";
+
+    private static final String EXPIRE_BATCH = "UPDATE booking SET status = 'EXPIRED', updatedAt = CURRENT_DATE "
+            + "WHERE id IN (SELECT id FROM booking WHERE status = 'PENDING' AND (createdAt < ? OR startDate < ?) "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)" + RETURNING;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingIntervalIndex intervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int pendingTtlDays;
+    private final int startGraceDays;
+    private final int batchSize;
+
+    public BookingLifecycleService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            BookingIntervalIndex intervalIndex, ApplicationEventPublisher eventPublisher,
+            @Value("${booking.expiry.pending-ttl-days:7}") int pendingTtlDays,
+            @Value("${booking.expiry.start-grace-days:0}") int startGraceDays,
+            @Value("${booking.expiry.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.intervalIndex = intervalIndex;
+        this.eventPublisher = eventPublisher;
+        this.pendingTtlDays = pendingTtlDays;
+        this.startGraceDays = startGraceDays;
+        this.batchSize = batchSize;
+    }
+
+    // A pending request expires once it is older than the TTL, or once its start date has passed by more than
+    // the grace period. Runs chunk by chunk, one transaction each, so locks stay short; SKIP LOCKED lets
+    // several instances run the job at once.
+    @Scheduled(fixedDelayString = "${booking.expiry.interval-ms:3600000}")
+    public int expireStalePending() {
+        Date createdBefore = Date.valueOf(LocalDate.now().minusDays(pendingTtlDays));
+        Date startingBefore = Date.valueOf(LocalDate.now().minusDays(startGraceDays));
+        int expired = 0;
+        int changed;
+        do {
+            changed = transactionTemplate.execute(status -> {
+                List<BookingChangedEvent> rows = jdbcTemplate.query(EXPIRE_BATCH,
+                        changedRows(BookingStatus.EXPIRED), createdBefore, startingBefore, batchSize);
+                rows.forEach(eventPublisher::publishEvent);
+                return rows.size();
+            });
+            expired += changed;
+        } while (changed == batchSize);
+        return expired;
+    }
+
+    // Called within the approving transaction, under the property's booking lock
+    public List<Long> rejectOverlappingPending(Booking approved) {
+        Long propertyId = approved.getProperty().getId();
+        List<BookingChangedEvent> rows;
+        if (intervalIndex.isReady()) {
+            List<Long> candidates = intervalIndex.overlapping(propertyId, BookingStatus.PENDING,
+                    approved.getStartDate(), approved.getEndDate()).stream()
+                    .filter(id -> !id.equals(approved.getId()))
+                    .collect(Collectors.toList());
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            String ids = candidates.stream().map(String::valueOf).collect(Collectors.joining(","));
+            rows = jdbcTemplate.query("UPDATE booking SET status = 'REJECTED', updatedAt = CURRENT_DATE "
+                    + "WHERE id IN (" + ids + ") AND status = 'PENDING'" + RETURNING,
+                    changedRows(BookingStatus.REJECTED));
+        } else {
+            rows = jdbcTemplate.query("UPDATE booking SET status = 'REJECTED', updatedAt = CURRENT_DATE "
+                    + "WHERE property_id = ? AND status = 'PENDING' AND id <> ? AND startDate < ? AND endDate > ?"
+                    + RETURNING, changedRows(BookingStatus.REJECTED), propertyId, approved.getId(),
+                    Date.valueOf(approved.getEndDate()), Date.valueOf(approved.getStartDate()));
+        }
+        rows.forEach(eventPublisher::publishEvent);
+        return rows.stream().map(BookingChangedEvent::getBookingId).collect(Collectors.toList());
+    }
+
+    private static RowMapper<BookingChangedEvent> changedRows(BookingStatus status) {
+        return (rs, rowNum) -> new BookingChangedEvent(rs.getLong("id"), rs.getLong("property_id"),
+                rs.getDate("startDate").toLocalDate(), rs.getDate("endDate").toLocalDate(), status,
+                rs.getObject("tenant_id", Long.class), rs.getObject("landlord_id", Long.class));
+    }
+}
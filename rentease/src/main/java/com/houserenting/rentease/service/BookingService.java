@@ -1,6 +1,8 @@
 package com.houserenting.rentease.service;
 
 import com.houserenting.rentease.dto.BookingDTO;
+import com.houserenting.rentease.dto.BookingInbox;
+import com.houserenting.rentease.event.BookingChangedEvent;
 import com.houserenting.rentease.model.Booking;
 import com.houserenting.rentease.model.BookingStatus;
 import com.houserenting.rentease.model.Property;
@@ -8,16 +10,34 @@ import com.houserenting.rentease.model.User;
 import com.houserenting.rentease.repository.BookingRepository;
 import com.houserenting.rentease.repository.PropertyRepository;
 import com.houserenting.rentease.repository.UserRepository;
+import com.houserenting.rentease.util.StripedLock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 public class BookingService {
 
+    private static final int PROPERTY_LOCK_STRIPES = 256;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final StripedLock propertyLocks = new StripedLock(PROPERTY_LOCK_STRIPES);
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -27,16 +47,112 @@ public class BookingService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<Booking> getTenantBookings(Long tenantId) {
-        return bookingRepository.findByTenantId(tenantId);
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingLifecycleService lifecycleService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmIndexes() {
+        intervalIndex.beginRebuild();
+        List<BookingRepository.BookingRange> ranges;
+        try {
+            ranges = bookingRepository.findRangesByStatusIn(EnumSet.of(BookingStatus.PENDING, BookingStatus.APPROVED));
+        } catch (RuntimeException e) {
+            intervalIndex.cancelRebuild();
+            throw e;
+        }
+        intervalIndex.rebuild(ranges);
     }
 
-    public List<Booking> getPropertyBookings(Long propertyId) {
-        return bookingRepository.findByPropertyId(propertyId);
+    // Whether an approved booking of the property overlaps [startDate, endDate)
+    private boolean isBooked(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        if (intervalIndex.isReady()) {
+            return intervalIndex.overlaps(propertyId, BookingStatus.APPROVED, startDate, endDate);
+        }
+        return bookingRepository.existsOverlapping(propertyId, BookingStatus.APPROVED, startDate, endDate);
     }
 
-    @Transactional
-    public Booking createBooking(Long propertyId, Long tenantId, LocalDate startDate) {
+    // Booking writes for one property run one at a time, from the checks through commit and the after-commit
+    // index update, so two requests cannot both pass the checks; other properties use other stripes and run in
+    // parallel. The database constraints still hold across instances and surface here as a conflict.
+    private <T> T underPropertyLock(Long propertyId, Supplier<T> work) {
+        return propertyLocks.withLock(propertyId, () -> {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("The booking conflicts with an existing booking for this property", e);
+            }
+        });
+    }
+
+    private Long propertyIdOf(Long bookingId) {
+        return bookingRepository.findPropertyIdById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    }
+
+    private void publishChange(Booking booking) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking.getProperty().getId(),
+                booking.getStartDate(), booking.getEndDate(), booking.getStatus(), booking.getTenant().getId(),
+                booking.getProperty().getLandlord().getId()));
+    }
+
+    public List<BookingDTO> getTenantBookings(Long tenantId) {
+        return bookingRepository.findDtosByTenantId(tenantId);
+    }
+
+    public List<BookingDTO> getPropertyBookings(Long propertyId) {
+        return bookingRepository.findDtosByPropertyId(propertyId);
+    }
+
+    // Incoming requests across all of a landlord's properties, newest first, with the per-status totals
+    @Transactional(readOnly = true)
+    public BookingInbox getLandlordInbox(Long landlordId, BookingStatus status, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Long beforeId = cursor != null ? decodeCursor(cursor) : null;
+
+        // Fetch one extra row to learn whether another page exists
+        List<BookingDTO> rows = bookingRepository.findLandlordInbox(landlordId, status, beforeId, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<BookingDTO> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BookingStatus s : BookingStatus.values()) {
+            counts.put(s.name(), 0L);
+        }
+        for (Object[] row : bookingRepository.countByLandlordIdGroupByStatus(landlordId)) {
+            counts.put(((BookingStatus) row[0]).name(), (Long) row[1]);
+        }
+        return new BookingInbox(content, nextCursor, counts);
+    }
+
+    private static String encodeCursor(Long id) {
+        byte[] raw = String.valueOf(id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public BookingDTO createBooking(Long propertyId, Long tenantId, LocalDate startDate) {
+        return underPropertyLock(propertyId, () -> convertToDto(doCreateBooking(propertyId, tenantId, startDate)));
+    }
+
+    private Booking doCreateBooking(Long propertyId, Long tenantId, LocalDate startDate) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
         User tenant = userRepository.findById(tenantId)
@@ -55,36 +171,60 @@ public class BookingService {
         }
 
         // Check if the property is available for the requested dates
-        List<Booking> existingBookings = bookingRepository.findByPropertyIdAndStatus(propertyId,
-                BookingStatus.APPROVED);
-        for (Booking booking : existingBookings) {
-            if (startDate.isAfter(booking.getStartDate()) && startDate.isBefore(booking.getEndDate())) {
-                throw new RuntimeException("Property is not available for the selected dates");
-            }
+        LocalDate endDate = startDate.plusMonths(1); // Default to 1 month rental
+        if (isBooked(propertyId, startDate, endDate)) {
+            throw new RuntimeException("Property is not available for the selected dates");
         }
 
         Booking booking = new Booking();
         booking.setProperty(property);
         booking.setTenant(tenant);
         booking.setStartDate(startDate);
-        booking.setEndDate(startDate.plusMonths(1)); // Default to 1 month rental
+        booking.setEndDate(endDate);
         booking.setStatus(BookingStatus.PENDING);
 
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        publishChange(savedBooking);
+        return savedBooking;
+    }
+
+    public BookingDTO updateBookingStatus(Long bookingId, BookingStatus status) {
+        return underPropertyLock(propertyIdOf(bookingId),
+                () -> convertToDto(doUpdateBookingStatus(bookingId, status)));
     }
 
-    @Transactional
-    public Booking updateBookingStatus(Long bookingId, BookingStatus status) {
-        Booking booking = bookingRepository.findById(bookingId)
+    private Booking doUpdateBookingStatus(Long bookingId, BookingStatus status) {
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
+        if (booking.getStatus() == BookingStatus.EXPIRED && status != BookingStatus.EXPIRED) {
+            throw new RuntimeException("The booking request has expired");
+        }
+
+        if (status == BookingStatus.APPROVED && booking.getStatus() != BookingStatus.APPROVED
+                && isBooked(booking.getProperty().getId(), booking.getStartDate(), booking.getEndDate())) {
+            throw new RuntimeException("Property is already booked for the selected dates");
+        }
+
+        boolean approving = status == BookingStatus.APPROVED && booking.getStatus() != BookingStatus.APPROVED;
         booking.setStatus(status);
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        publishChange(savedBooking);
+        if (approving) {
+            lifecycleService.rejectOverlappingPending(savedBooking);
+        }
+        return savedBooking;
     }
 
-    @Transactional
     public void cancelBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        underPropertyLock(propertyIdOf(bookingId), () -> {
+            doCancelBooking(bookingId);
+            return null;
+        });
+    }
+
+    private void doCancelBooking(Long bookingId) {
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         if (booking.getStatus() != BookingStatus.PENDING) {
@@ -93,6 +233,7 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        publishChange(booking);
     }
 
     public BookingDTO getBookingById(Long id) {
@@ -102,17 +243,14 @@ public class BookingService {
     }
 
     private BookingDTO convertToDto(Booking booking) {
-        BookingDTO dto = new BookingDTO();
-        dto.setId(booking.getId());
-        dto.setPropertyId(booking.getProperty().getId());
-        dto.setTenantId(booking.getTenant().getId());
-        dto.setStartDate(booking.getStartDate());
-        dto.setEndDate(booking.getEndDate());
-        dto.setStatus(booking.getStatus().name());
-        return dto;
-    }
-
-    public List<Booking> getBookingsByStatus(BookingStatus status) {
-        return bookingRepository.findByStatus(status);
+        Property property = booking.getProperty();
+        User tenant = booking.getTenant();
+        return new BookingDTO(booking.getId(), property.getId(), property.getTitle(), property.getMainPhoto(),
+                tenant.getId(), tenant.getFirstName(), tenant.getLastName(), booking.getStartDate(),
+                booking.getEndDate(), booking.getStatus(), booking.getCreatedAt());
+    }
+
+    public List<BookingDTO> getBookingsByStatus(BookingStatus status) {
+        return bookingRepository.findDtosByStatus(status);
     }
 }
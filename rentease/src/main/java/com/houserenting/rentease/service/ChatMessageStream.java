@@ -0,0 +1,87 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import com.houserenting.rentease.event.MessageSentEvent;
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.repository.ChatRepository;
+import com.houserenting.rentease.repository.MessageRepository;
+import com.houserenting.rentease.util.SseChannel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+// Live delivery of a chat's messages to its participants over server-sent events, one channel key per chat.
+// Messages are pushed after their transaction commits. The event id is the message id, so a reconnect with
+// Last-Event-ID is caught up from the message table with everything committed after that message (by chatSeq,
+// not by id); a gap larger than REPLAY_LIMIT gets a "reset" event and the client reloads the history instead.
+@Component
+public class ChatMessageStream {
+
+    private static final int REPLAY_LIMIT = 500;
+
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final SseChannel<Long> channel;
+
+    public ChatMessageStream(ChatRepository chatRepository, MessageRepository messageRepository,
+            @Value("${chat.stream.buffer-size:256}") int bufferSize,
+            @Value("${chat.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.chatRepository = chatRepository;
+        this.messageRepository = messageRepository;
+        this.channel = new SseChannel<>(bufferSize, timeoutMs);
+    }
+
+    public SseEmitter subscribe(Long chatId, Long userId, String lastEventId) {
+        Chat chat = chatRepository.findById(chatId)
+                .orElseThrow(() -> new RuntimeException("Chat not found"));
+        if (!userId.equals(chat.getTenant().getId()) && !userId.equals(chat.getLandlord().getId())) {
+            throw new RuntimeException("User is not a participant of this chat");
+        }
+
+        // Subscribe before reading the backlog so nothing committed in between is lost; a message can then
+        // arrive twice, which clients ignore by id
+        SseChannel<Long>.Subscriber subscriber = channel.subscribe(chatId);
+        if (lastEventId != null) {
+            try {
+                List<ChatMessageDTO> missed = messageRepository.findDtosAfter(chatId,
+                        Long.parseLong(lastEventId.trim()), PageRequest.of(0, REPLAY_LIMIT + 1));
+                if (missed.size() > REPLAY_LIMIT) {
+                    subscriber.offer(() -> SseEmitter.event().name("reset").data(""));
+                } else {
+                    missed.forEach(message -> subscriber.offer(() -> toEvent(message)));
+                }
+            } catch (NumberFormatException e) {
+                subscriber.offer(() -> SseEmitter.event().name("reset").data(""));
+            }
+        }
+        return subscriber.getEmitter();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        ChatMessageDTO message = event.getMessage();
+        channel.publish(message.getChatId(), () -> toEvent(message));
+    }
+
+    @Scheduled(fixedRateString = "${chat.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        channel.heartbeat();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channel.close();
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(ChatMessageDTO message) {
+        return SseEmitter.event().id(String.valueOf(message.getId())).name("message")
+                .data(message, MediaType.APPLICATION_JSON);
+    }
+}
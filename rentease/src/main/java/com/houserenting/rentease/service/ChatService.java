@@ -0,0 +1,190 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import com.houserenting.rentease.dto.ChatMessagePage;
+import com.houserenting.rentease.dto.ChatSummaryDTO;
+import com.houserenting.rentease.dto.ChatSummaryPage;
+import com.houserenting.rentease.event.MessageSentEvent;
+import com.houserenting.rentease.event.MessagesReadEvent;
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Message;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.ChatRepository;
+import com.houserenting.rentease.repository.ChatUnreadRepository;
+import com.houserenting.rentease.repository.MessageRepository;
+import com.houserenting.rentease.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class ChatService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChatUnreadRepository unreadRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Message sendMessage(Long chatId, Long senderId, Long receiverId, String content) {
+        // Verify chat exists; locked so its messages are numbered in the order they commit
+        Chat chat = chatRepository.findByIdForUpdate(chatId)
+                .orElseThrow(() -> new RuntimeException("Chat not found"));
+
+        // Verify users exist
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new RuntimeException("Sender not found"));
+        User receiver = userRepository.findById(receiverId)
+                .orElseThrow(() -> new RuntimeException("Receiver not found"));
+
+        Message message = new Message();
+        message.setChat(chat);
+        message.setContent(content);
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setChatSeq(chat.nextMessageSeq());
+        Message saved = messageRepository.save(message);
+        unreadRepository.increment(chatId, receiverId);
+        chatRepository.updateLastMessage(chatId, saved.getId(), snippet(content), saved.getTimestamp(), senderId);
+
+        // Pushed to the chat's open streams once the message is committed
+        eventPublisher.publishEvent(new MessageSentEvent(toDto(saved)));
+        return saved;
+    }
+
+    // Chats created before the preview columns existed get them filled from their latest message
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillChatSummaries() {
+        chatRepository.backfillLastMessages();
+        chatRepository.backfillActivity();
+    }
+
+    // A user's chats as tenant or as landlord, most recently active first, keyset-paginated on
+    // (lastActivityAt, id) with an opaque cursor
+    public ChatSummaryPage getChats(Long userId, boolean asLandlord, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, size + 1);
+        List<ChatSummaryDTO> chats;
+        if (cursor == null) {
+            chats = asLandlord
+                    ? chatRepository.findLandlordSummaries(userId, page)
+                    : chatRepository.findTenantSummaries(userId, page);
+        } else {
+            String[] position = decodeCursor(cursor);
+            LocalDateTime activityAt;
+            Long id;
+            try {
+                activityAt = LocalDateTime.parse(position[0]);
+                id = Long.valueOf(position[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            chats = asLandlord
+                    ? chatRepository.findLandlordSummariesAfter(userId, activityAt, id, page)
+                    : chatRepository.findTenantSummariesAfter(userId, activityAt, id, page);
+        }
+
+        String nextCursor = null;
+        if (chats.size() > size) {
+            chats = chats.subList(0, size);
+            ChatSummaryDTO last = chats.get(size - 1);
+            nextCursor = encodeCursor(last.getLastActivityAt(), last.getId());
+        }
+        return new ChatSummaryPage(chats, nextCursor);
+    }
+
+    // Marks the messages the user received in the chat as read and takes them off the unread counter
+    @Transactional
+    public int markRead(Long chatId, Long userId) {
+        int read = messageRepository.markRead(chatId, userId);
+        if (read > 0) {
+            unreadRepository.decrement(chatId, userId, read);
+        }
+        eventPublisher.publishEvent(new MessagesReadEvent(chatId, userId));
+        return read;
+    }
+
+    // Keyset pages in the chat's commit order with message ids as cursors: no cursor gives the latest messages,
+    // before pages back into older history and after fetches only what arrived since the last id the client
+    // holds. Pages are in ascending order.
+    public ChatMessagePage getMessages(Long chatId, Long before, Long after, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, size + 1);
+        List<ChatMessageDTO> messages;
+        boolean descending = false;
+        if (after != null && before != null) {
+            messages = messageRepository.findDtosBetween(chatId, after, before, page);
+        } else if (after != null) {
+            messages = messageRepository.findDtosAfter(chatId, after, page);
+        } else if (before != null) {
+            messages = messageRepository.findDtosBefore(chatId, before, page);
+            descending = true;
+        } else {
+            messages = messageRepository.findLatestDtos(chatId, page);
+            descending = true;
+        }
+
+        boolean hasMore = messages.size() > size;
+        if (hasMore) {
+            messages = messages.subList(0, size);
+        }
+        if (descending) {
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
+        }
+        return new ChatMessagePage(messages, hasMore);
+    }
+
+    private static String snippet(String content) {
+        return content.length() <= Chat.SNIPPET_LENGTH ? content : content.substring(0, Chat.SNIPPET_LENGTH);
+    }
+
+    private static String encodeCursor(LocalDateTime activityAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((activityAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = decoded.split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public static ChatMessageDTO toDto(Message message) {
+        return new ChatMessageDTO(message.getId(), message.getChat().getId(), message.getSender().getId(),
+                message.getReceiver().getId(), message.getContent(), message.getTimestamp(), message.isRead());
+    }
+}
@@ -0,0 +1,118 @@
+package com.houserenting.rentease.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Responses recorded per Idempotency-Key. A bounded LRU in memory answers repeats on the same node; the
+// idempotency_key table makes a key's first execution exclusive across nodes and keeps responses across
+// restarts. Entries expire after the TTL. A claim left unfinished (node died mid-request) can be taken over
+// after a few minutes.
+@Service
+public class IdempotencyStore {
+
+    private static final int ABANDONED_CLAIM_MINUTES = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final Map<String, StoredResponse> recent;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttlHours * 3_600_000;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private final String requestHash;
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+        private final long storedAt;
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            StoredResponse response = recent.get(key);
+            if (response != null) {
+                if (now - response.getStoredAt() <= ttlMillis) {
+                    return Optional.of(response);
+                }
+                recent.remove(key);
+            }
+        }
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, status, content_type, body, created_at FROM idempotency_key "
+                        + "WHERE idem_key = ? AND completed AND created_at > ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getInt("status"),
+                        rs.getString("content_type"), rs.getBytes("body"), rs.getTimestamp("created_at").getTime()),
+                key, expiredBefore());
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        synchronized (recent) {
+            recent.put(key, rows.get(0));
+        }
+        return Optional.of(rows.get(0));
+    }
+
+    // True when this caller now owns the key's first execution; the request body's hash is kept with the claim
+    public boolean claim(String key, String requestHash) {
+        return jdbcTemplate.update("INSERT INTO idempotency_key (idem_key, request_hash, completed, created_at) "
+                + "VALUES (?, ?, false, ?) "
+                + "ON CONFLICT (idem_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, completed = false, "
+                + "status = NULL, content_type = NULL, body = NULL, created_at = EXCLUDED.created_at "
+                + "WHERE idempotency_key.created_at < ? "
+                + "AND (NOT idempotency_key.completed OR idempotency_key.created_at < ?)",
+                key, requestHash, Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(ABANDONED_CLAIM_MINUTES)), expiredBefore()) > 0;
+    }
+
+    // Body hash of the request currently holding the key, if one is in progress
+    public Optional<String> pendingRequestHash(String key) {
+        return jdbcTemplate.queryForList("SELECT request_hash FROM idempotency_key "
+                + "WHERE idem_key = ? AND NOT completed", String.class, key).stream().findFirst();
+    }
+
+    public void complete(String key, String requestHash, int status, String contentType, byte[] body) {
+        jdbcTemplate.update("UPDATE idempotency_key SET completed = true, status = ?, content_type = ?, body = ? "
+                + "WHERE idem_key = ?", status, contentType, body, key);
+        synchronized (recent) {
+            recent.put(key, new StoredResponse(requestHash, status, contentType, body, System.currentTimeMillis()));
+        }
+    }
+
+    // Gives up a claim whose request failed, so a retry executes again
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE idem_key = ? AND NOT completed", key);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at < ?", expiredBefore());
+    }
+
+    private Timestamp expiredBefore() {
+        return new Timestamp(System.currentTimeMillis() - ttlMillis);
+    }
+}
@@ -0,0 +1,605 @@
+package com.houserenting.rentease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import com.houserenting.rentease.event.MessageSentEvent;
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Message;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Write-behind ingestion for chat messages. A message is given its id and timestamp up front, appended to a local
+// log and acknowledged once the log is fsynced; one writer thread groups concurrent appends under a single fsync.
+// A flusher then commits the logged messages to the message table in batches of batchSize, at least every
+// flushIntervalMs, together with their unread counters and chat previews, and publishes MessageSentEvent per
+// message after commit. Log segments are deleted once all their messages are committed; segments left over from
+// a crash are replayed once the application is ready, and since ids were fixed when logging, replay skips anything
+// already stored. Counters and previews only follow rows an insert actually created, so retrying a batch whose
+// commit did succeed never counts a message twice.
+@Component
+public class MessageIngestPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestPipeline.class);
+
+    private static final int MAX_GROUP = 1024;
+    private static final long ACK_TIMEOUT_MS = 10_000;
+    private static final int MAX_CACHED_CHATS = 10_000;
+
+    // One statement per batch; RETURNING names the rows actually inserted, which batch update counts cannot do
+    // once the driver rewrites batched inserts
+    private static final String INSERT_MESSAGES = "INSERT INTO message (id, chat_id, chatSeq, content, sender_id, "
+            + "receiver_id, timestamp, isRead) "
+            + "SELECT m.id, m.chat_id, m.chat_seq, m.content, m.sender_id, m.receiver_id, m.sent_at, false "
+            + "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::text[], ?::bigint[], ?::bigint[], "
+            + "?::timestamp[]) AS m(id, chat_id, chat_seq, content, sender_id, receiver_id, sent_at) "
+            + "ON CONFLICT (id) DO NOTHING RETURNING id";
+    private static final String INSERT_MESSAGE = "INSERT INTO message (id, chat_id, chatSeq, content, sender_id, "
+            + "receiver_id, timestamp, isRead) VALUES (?, ?, ?, ?, ?, ?, ?, false) ON CONFLICT (id) DO NOTHING";
+    // Reserves a chat's next positions and locks the chat row until commit, as ChatService.sendMessage does, so
+    // chatSeq follows commit order across both write paths. Returns the last position reserved.
+    private static final String RESERVE_CHAT_SEQ = "UPDATE chat SET messageSeq = COALESCE(messageSeq, 0) + ? "
+            + "WHERE id = ? RETURNING messageSeq";
+    private static final String INCREMENT_UNREAD = "INSERT INTO chat_unread (chat_id, user_id, unread) "
+            + "VALUES (?, ?, ?) ON CONFLICT (chat_id, user_id) "
+            + "DO UPDATE SET unread = chat_unread.unread + EXCLUDED.unread";
+    private static final String UPDATE_LAST_MESSAGE = "UPDATE chat SET lastMessageId = ?, lastMessageSnippet = ?, "
+            + "lastMessageAt = ?, lastMessageSenderId = ?, lastActivityAt = ?, updatedAt = ? "
+            + "WHERE id = ? AND (lastMessageAt IS NULL OR lastMessageAt < ? "
+            + "OR (lastMessageAt = ? AND lastMessageId < ?))";
+    // The order UPDATE_LAST_MESSAGE keeps the preview in
+    private static final Comparator<ChatMessageDTO> SENT_ORDER = Comparator.comparing(ChatMessageDTO::getTimestamp)
+            .thenComparing(ChatMessageDTO::getId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path logDir;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long segmentBytes;
+
+    private final LinkedBlockingQueue<Pending> incoming;
+    private final ArrayDeque<Logged> unflushed = new ArrayDeque<>();
+    private final ConcurrentLinkedDeque<Segment> closedSegments = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<Long, long[]> participants;
+    private final Object idLock = new Object();
+
+    private ScheduledExecutorService flusher;
+    private Thread writer;
+    private volatile boolean running;
+    private Segment segment;
+    private long seq;
+    private int segmentCount;
+    private volatile long flushedSeq;
+    private long nextId;
+    private long idBlockEnd = -1;
+
+    public MessageIngestPipeline(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+            @Value("${chat.ingest.enabled:false}") boolean enabled,
+            @Value("${chat.ingest.log-dir:${user.dir}/data/chat-log}") String logDir,
+            @Value("${chat.ingest.batch-size:500}") int batchSize,
+            @Value("${chat.ingest.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${chat.ingest.segment-bytes:67108864}") long segmentBytes,
+            @Value("${chat.ingest.queue-capacity:100000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.logDir = Paths.get(logDir);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.segmentBytes = segmentBytes;
+        this.incoming = new LinkedBlockingQueue<>(queueCapacity);
+        this.participants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > MAX_CACHED_CHATS;
+            }
+        };
+    }
+
+    private static final class Pending {
+        private final ChatMessageDTO message;
+        private final CompletableFuture<ChatMessageDTO> acked = new CompletableFuture<>();
+
+        private Pending(ChatMessageDTO message) {
+            this.message = message;
+        }
+    }
+
+    private static final class Logged {
+        private final long seq;
+        private final ChatMessageDTO message;
+
+        private Logged(long seq, ChatMessageDTO message) {
+            this.seq = seq;
+            this.message = message;
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private volatile long lastSeq;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Waits for the application to be ready so events published for replayed messages reach their listeners
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() throws IOException {
+        if (enabled) {
+            start();
+        }
+    }
+
+    // Replays segments left by a previous run, then starts the writer and the flusher
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        Files.createDirectories(logDir);
+        List<Path> leftover;
+        try (Stream<Path> files = Files.list(logDir)) {
+            leftover = files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+        for (Path path : leftover) {
+            replay(path);
+            Files.delete(path);
+        }
+
+        segment = openSegment();
+        running = true;
+        writer = new Thread(this::writeLoop, "chat-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-ingest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Stops taking messages, logs and commits everything already accepted
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join();
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+        try {
+            segment.channel.close();
+            if (flushedSeq >= seq) {
+                Files.deleteIfExists(segment.path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not close chat ingest log {}", segment.path, e);
+        }
+    }
+
+    // Returns the message with its id and timestamp once it is durably logged; it reaches the message table
+    // within flushIntervalMs
+    public ChatMessageDTO submit(Long chatId, Long senderId, Long receiverId, String content) {
+        if (!running) {
+            throw new IllegalStateException("Message ingestion is not running");
+        }
+        long[] chat = participants(chatId);
+        boolean senderIsParticipant = senderId.equals(chat[0]) || senderId.equals(chat[1]);
+        boolean receiverIsParticipant = receiverId.equals(chat[0]) || receiverId.equals(chat[1]);
+        if (!senderIsParticipant || !receiverIsParticipant || senderId.equals(receiverId)) {
+            throw new RuntimeException("Sender and receiver must be the two participants of the chat");
+        }
+
+        Pending pending = new Pending(new ChatMessageDTO(reserveId(), chatId, senderId, receiverId, content,
+                LocalDateTime.now(), false));
+        try {
+            if (!incoming.offer(pending, ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Message ingestion is overloaded, try again");
+            }
+            return pending.acked.get(ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending message", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Message could not be logged", e);
+        }
+    }
+
+    // Messages accepted but not yet committed to the message table
+    public int backlog() {
+        synchronized (unflushed) {
+            return unflushed.size() + incoming.size();
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> group = new ArrayList<>(MAX_GROUP);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (running || !incoming.isEmpty()) {
+            try {
+                Pending first = incoming.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                incoming.drainTo(group, MAX_GROUP - 1);
+                appendGroup(group, bytes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+                bytes.reset();
+            }
+        }
+    }
+
+    private void appendGroup(List<Pending> group, ByteArrayOutputStream bytes) {
+        long goodSize = -1;
+        try {
+            if (segment.channel.size() >= segmentBytes) {
+                segment.channel.close();
+                closedSegments.add(segment);
+                segment = openSegment();
+            }
+            for (Pending pending : group) {
+                bytes.write(objectMapper.writeValueAsBytes(pending.message));
+                bytes.write('\n');
+            }
+            goodSize = segment.channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer);
+            }
+            // One fsync acknowledges the whole group
+            segment.channel.force(false);
+        } catch (IOException e) {
+            group.forEach(p -> p.acked.completeExceptionally(e));
+            abandonSegment(goodSize);
+            return;
+        }
+
+        boolean full;
+        synchronized (unflushed) {
+            for (Pending pending : group) {
+                unflushed.add(new Logged(++seq, pending.message));
+            }
+            segment.lastSeq = seq;
+            full = unflushed.size() >= batchSize;
+        }
+        group.forEach(p -> p.acked.complete(p.message));
+        if (full) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            while (true) {
+                List<Logged> batch = new ArrayList<>(batchSize);
+                synchronized (unflushed) {
+                    for (Logged logged : unflushed) {
+                        if (batch.size() == batchSize) {
+                            break;
+                        }
+                        batch.add(logged);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Logged> stored = batch;
+                try {
+                    commit(batch);
+                } catch (DataIntegrityViolationException e) {
+                    stored = commitOneByOne(batch);
+                } catch (DataAccessException e) {
+                    // Database unavailable: the batch stays logged and is retried on the next interval
+                    log.warn("Chat message flush failed, {} messages pending", backlog(), e);
+                    return;
+                }
+
+                synchronized (unflushed) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        unflushed.poll();
+                    }
+                }
+                flushedSeq = batch.get(batch.size() - 1).seq;
+                deleteFlushedSegments();
+                // Every stored message of the batch is published, including any stored by an earlier attempt whose
+                // outcome was lost (that attempt returned before publishing); dropped ones are not
+                stored.forEach(logged -> eventPublisher.publishEvent(new MessageSentEvent(logged.message)));
+                if (batch.size() < batchSize) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void commit(List<Logged> batch) {
+        int size = batch.size();
+        Long[] ids = new Long[size];
+        Long[] chatIds = new Long[size];
+        Long[] chatSeqs = new Long[size];
+        String[] contents = new String[size];
+        Long[] senderIds = new Long[size];
+        Long[] receiverIds = new Long[size];
+        Timestamp[] sentAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            ChatMessageDTO m = batch.get(i).message;
+            ids[i] = m.getId();
+            chatIds[i] = m.getChatId();
+            contents[i] = m.getContent();
+            senderIds[i] = m.getSenderId();
+            receiverIds[i] = m.getReceiverId();
+            sentAt[i] = Timestamp.valueOf(m.getTimestamp());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Chats in id order so concurrent writers lock them in the same order; a missing chat leaves its
+            // messages without a position and the insert fails them, to be isolated one by one
+            Map<Long, Integer> perChat = new TreeMap<>();
+            for (Long chatId : chatIds) {
+                perChat.merge(chatId, 1, Integer::sum);
+            }
+            Map<Long, Long> nextSeq = new HashMap<>();
+            perChat.forEach((chatId, count) -> {
+                Long last = reserveChatSeq(chatId, count);
+                if (last != null) {
+                    nextSeq.put(chatId, last - count + 1);
+                }
+            });
+            for (int i = 0; i < size; i++) {
+                Long next = nextSeq.get(chatIds[i]);
+                if (next != null) {
+                    chatSeqs[i] = next;
+                    nextSeq.put(chatIds[i], next + 1);
+                }
+            }
+
+            Set<Long> inserted = new HashSet<>(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_MESSAGES);
+                ps.setArray(1, con.createArrayOf("bigint", ids));
+                ps.setArray(2, con.createArrayOf("bigint", chatIds));
+                ps.setArray(3, con.createArrayOf("bigint", chatSeqs));
+                ps.setArray(4, con.createArrayOf("text", contents));
+                ps.setArray(5, con.createArrayOf("bigint", senderIds));
+                ps.setArray(6, con.createArrayOf("bigint", receiverIds));
+                ps.setArray(7, con.createArrayOf("timestamp", sentAt));
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1)));
+
+            Map<List<Long>, Integer> unread = new HashMap<>();
+            Map<Long, ChatMessageDTO> latest = new HashMap<>();
+            for (Logged logged : batch) {
+                ChatMessageDTO m = logged.message;
+                if (inserted.contains(m.getId())) {
+                    unread.merge(List.of(m.getChatId(), m.getReceiverId()), 1, Integer::sum);
+                    latest.merge(m.getChatId(), m, (a, b) -> SENT_ORDER.compare(a, b) >= 0 ? a : b);
+                }
+            }
+            List<Object[]> counters = new ArrayList<>(unread.size());
+            unread.forEach((key, count) -> counters.add(new Object[] { key.get(0), key.get(1), count }));
+            List<Object[]> previews = new ArrayList<>(latest.size());
+            latest.values().forEach(m -> previews.add(previewRow(m)));
+            jdbcTemplate.batchUpdate(INCREMENT_UNREAD, counters);
+            jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE, previews);
+        });
+    }
+
+    // Isolates the rows the database rejects (a chat or user deleted after the message was accepted); the others
+    // are stored. Returns the messages now in the table, whether inserted here or already stored.
+    private List<Logged> commitOneByOne(List<Logged> batch) {
+        List<Logged> stored = new ArrayList<>(batch.size());
+        for (Logged logged : batch) {
+            try {
+                storeOne(logged.message);
+                stored.add(logged);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dropping chat message {} rejected by the database: {}", logged.message.getId(),
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+        return stored;
+    }
+
+    // True when the message was inserted, false when it was already stored
+    private boolean storeOne(ChatMessageDTO m) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Long chatSeq = reserveChatSeq(m.getChatId(), 1);
+            int inserted = jdbcTemplate.update(INSERT_MESSAGE, m.getId(), m.getChatId(), chatSeq, m.getContent(),
+                    m.getSenderId(), m.getReceiverId(), Timestamp.valueOf(m.getTimestamp()));
+            if (inserted == 1) {
+                jdbcTemplate.update(INCREMENT_UNREAD, m.getChatId(), m.getReceiverId(), 1);
+                jdbcTemplate.update(UPDATE_LAST_MESSAGE, previewRow(m));
+            }
+            return inserted == 1;
+        }));
+    }
+
+    // Null when the chat no longer exists
+    private Long reserveChatSeq(Long chatId, int count) {
+        List<Long> last = jdbcTemplate.queryForList(RESERVE_CHAT_SEQ, Long.class, count, chatId);
+        return last.isEmpty() ? null : last.get(0);
+    }
+
+    private void replay(Path path) throws IOException {
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                ChatMessageDTO message;
+                try {
+                    message = objectMapper.readValue(line, ChatMessageDTO.class);
+                } catch (IOException e) {
+                    // A torn final write from a crash; it was never acknowledged
+                    break;
+                }
+                try {
+                    if (storeOne(message)) {
+                        replayed++;
+                        eventPublisher.publishEvent(new MessageSentEvent(message));
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Dropping logged chat message {} rejected by the database", message.getId());
+                }
+            }
+        }
+        log.info("Replayed {} chat messages from {}", replayed, path);
+    }
+
+    private void deleteFlushedSegments() {
+        Segment oldest;
+        while ((oldest = closedSegments.peek()) != null && oldest.lastSeq <= flushedSeq) {
+            closedSegments.poll();
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                log.warn("Could not delete chat ingest log {}", oldest.path, e);
+            }
+        }
+    }
+
+    // After a failed write the segment may end in part of a line, and replay stops at the first line it cannot
+    // read. Cut it back to the end of the last acknowledged group and continue in a new segment, so messages
+    // acknowledged later are never stranded behind the torn line. If no new segment can be opened now, the next
+    // group tries again.
+    private void abandonSegment(long goodSize) {
+        if (segment.channel.isOpen()) {
+            try {
+                if (goodSize >= 0) {
+                    segment.channel.truncate(goodSize);
+                }
+            } catch (IOException e) {
+                log.warn("Could not truncate chat ingest log {} after a failed write", segment.path, e);
+            }
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close chat ingest log {}", segment.path, e);
+            }
+            closedSegments.add(segment);
+        }
+        try {
+            segment = openSegment();
+        } catch (IOException e) {
+            log.warn("Could not open a new chat ingest log in {}", logDir, e);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        // Named by creation time so segments sort in write order
+        Path path = logDir.resolve(String.format("%013d-%06d.log", System.currentTimeMillis(), ++segmentCount));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new Segment(path, channel);
+    }
+
+    // Ids come from message_seq in blocks of ID_ALLOCATION_SIZE ending at the returned value, the way Hibernate's
+    // pooled optimizer reads it, so they never collide with messages saved through JPA
+    private long reserveId() {
+        synchronized (idLock) {
+            if (nextId > idBlockEnd) {
+                Long end = jdbcTemplate.queryForObject("SELECT nextval('message_seq')", Long.class);
+                idBlockEnd = end;
+                nextId = Math.max(1, end - Message.ID_ALLOCATION_SIZE + 1);
+            }
+            return nextId++;
+        }
+    }
+
+    private long[] participants(Long chatId) {
+        synchronized (participants) {
+            long[] cached = participants.get(chatId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<long[]> rows = jdbcTemplate.query("SELECT tenant_id, landlord_id FROM chat WHERE id = ?",
+                (rs, rowNum) -> new long[] { rs.getLong("tenant_id"), rs.getLong("landlord_id") }, chatId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Chat not found");
+        }
+        synchronized (participants) {
+            participants.put(chatId, rows.get(0));
+        }
+        return rows.get(0);
+    }
+
+    private static Object[] previewRow(ChatMessageDTO m) {
+        String content = m.getContent();
+        String snippet = content.length() <= Chat.SNIPPET_LENGTH ? content : content.substring(0, Chat.SNIPPET_LENGTH);
+        Timestamp sentAt = Timestamp.valueOf(m.getTimestamp());
+        return new Object[] { m.getId(), snippet, sentAt, m.getSenderId(), sentAt, sentAt,
+                m.getChatId(), sentAt, sentAt, m.getId() };
+    }
+}
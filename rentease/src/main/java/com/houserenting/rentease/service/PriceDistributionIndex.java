@@ -0,0 +1,184 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PriceDistribution;
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.event.PropertyChangedEvent;
+import com.houserenting.rentease.util.PriceSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Price sketches per landlord, per city and for the whole catalog, kept up to date from property changes
+// so a distribution is read in O(cells) rather than by scanning properties.
+@Component
+public class PriceDistributionIndex {
+
+    private static final double[] QUANTILES = {0.25, 0.50, 0.75, 0.95};
+
+    private final double resolution;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // property id -> the values last added to the sketches, needed to remove them again
+    private final Map<Long, PropertyResponse> indexed = new HashMap<>();
+    private final Map<Long, PriceSketch> byLandlord = new HashMap<>();
+    private final Map<String, PriceSketch> byCity = new HashMap<>();
+    private PriceSketch catalog;
+
+    // Changes seen since beginRebuild, null when no rebuild is in progress
+    private List<PropertyChangedEvent> duringRebuild;
+
+    private volatile boolean ready = false;
+
+    public PriceDistributionIndex(@Value("${price.histogram.resolution:10}") double resolution) {
+        this.resolution = resolution;
+        this.catalog = new PriceSketch(resolution);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Changes arriving between this and rebuild are replayed over the loaded snapshots
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The snapshots could not be loaded; the current sketches stay
+    public void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<PropertyResponse> snapshots) {
+        lock.writeLock().lock();
+        try {
+            indexed.clear();
+            byLandlord.clear();
+            byCity.clear();
+            catalog = new PriceSketch(resolution);
+            snapshots.forEach(this::add);
+            if (duringRebuild != null) {
+                duringRebuild.forEach(this::apply);
+                duringRebuild = null;
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        PropertyResponse previous = indexed.remove(event.getPropertyId());
+        if (previous != null) {
+            remove(previous);
+        }
+        if (!event.isDeleted()) {
+            add(event.getSnapshot());
+        }
+    }
+
+    public PriceDistribution distribution(Long landlordId, String city, double bucketWidth) {
+        lock.readLock().lock();
+        try {
+            PriceSketch sketch;
+            if (landlordId != null) {
+                sketch = byLandlord.get(landlordId);
+            } else if (city != null) {
+                sketch = byCity.get(city);
+            } else {
+                sketch = catalog;
+            }
+            return describe(sketch != null ? sketch : new PriceSketch(resolution), bucketWidth);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getResolution() {
+        return resolution;
+    }
+
+    public static PriceDistribution describe(PriceSketch sketch, double bucketWidth) {
+        double width = Math.max(1, Math.ceil(bucketWidth / sketch.getResolution())) * sketch.getResolution();
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        sketch.histogram(width).forEach((price, count) -> {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("price", price);
+            bucket.put("count", count);
+            buckets.add(bucket);
+        });
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        for (double q : QUANTILES) {
+            quantiles.put("p" + Math.round(q * 100), sketch.quantile(q));
+        }
+
+        PriceDistribution distribution = new PriceDistribution();
+        distribution.setTotal(sketch.getTotal());
+        distribution.setBucketWidth(width);
+        distribution.setBuckets(buckets);
+        distribution.setQuantiles(quantiles);
+        return distribution;
+    }
+
+    private void add(PropertyResponse p) {
+        indexed.put(p.getId(), p);
+        catalog.add(p.getPrice());
+        if (p.getLandlordId() != null) {
+            byLandlord.computeIfAbsent(p.getLandlordId(), id -> new PriceSketch(resolution)).add(p.getPrice());
+        }
+        if (p.getCity() != null) {
+            byCity.computeIfAbsent(p.getCity(), c -> new PriceSketch(resolution)).add(p.getPrice());
+        }
+    }
+
+    private void remove(PropertyResponse p) {
+        catalog.remove(p.getPrice());
+        if (p.getLandlordId() != null) {
+            removeFrom(byLandlord, p.getLandlordId(), p.getPrice());
+        }
+        if (p.getCity() != null) {
+            removeFrom(byCity, p.getCity(), p.getPrice());
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, PriceSketch> sketches, K key, double price) {
+        PriceSketch sketch = sketches.get(key);
+        if (sketch != null) {
+            sketch.remove(price);
+            if (sketch.isEmpty()) {
+                sketches.remove(key);
+            }
+        }
+    }
+}
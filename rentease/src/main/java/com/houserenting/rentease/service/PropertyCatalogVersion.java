@@ -0,0 +1,37 @@
+package com.houserenting.rentease.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Validators for property listings, kept in the single property_catalog row so every node computes the same
+// ones. Each write to the catalog (create, update, delete, bulk import) bumps the version in its own
+// transaction, which makes reading the validators a primary-key lookup rather than a scan of property.
+@Component
+@RequiredArgsConstructor
+public class PropertyCatalogVersion {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Validators current() {
+        return jdbcTemplate.queryForObject("SELECT version, modified_at FROM property_catalog WHERE id = 1",
+                (rs, rowNum) -> {
+                    long lastModified = rs.getTimestamp(2).getTime();
+                    return new Validators("\"catalog-" + rs.getLong(1) + "-" + lastModified + "\"", lastModified);
+                });
+    }
+
+    // Called in the writing transaction, so the new validators become visible together with the change
+    public void bump() {
+        jdbcTemplate.update("UPDATE property_catalog SET version = version + 1, modified_at = now() WHERE id = 1");
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Validators {
+        private final String eTag;
+        private final long lastModified;
+    }
+}
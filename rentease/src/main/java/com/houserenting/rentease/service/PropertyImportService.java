@@ -0,0 +1,292 @@
+package com.houserenting.rentease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserenting.rentease.dto.PropertyImportResult;
+import com.houserenting.rentease.dto.PropertyRequest;
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.event.PropertyChangedEvent;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Bulk property import. The body is read line by line (NDJSON, or CSV with a header row), each row is
+// validated on its own, and valid rows are written with JDBC batch inserts in chunks, one transaction per chunk.
+@Service
+@RequiredArgsConstructor
+public class PropertyImportService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_PROPERTY = "INSERT INTO property (id, title, type, description, address, "
+            + "neighborhood, city, district, bedrooms, bathrooms, area, yearBuilt, parkingSpaces, furnished, "
+            + "videoUrl, price, deposit, availableFrom, minLeaseMonths, pets, smoking, events, maxOccupants, "
+            + "landlord_id, status, version, updatedAt) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String INSERT_AMENITY =
+            "INSERT INTO property_amenities (property_id, amenities) VALUES (?, ?)";
+    private static final String INSERT_UTILITY =
+            "INSERT INTO property_utilitiesincluded (property_id, utilitiesIncluded) VALUES (?, ?)";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PropertyCatalogVersion catalogVersion;
+
+    public PropertyImportResult importProperties(InputStream body, boolean csv, Long landlordId) {
+        User landlord = userRepository.findById(landlordId)
+                .orElseThrow(() -> new RuntimeException("Landlord not found with id: " + landlordId));
+
+        PropertyImportResult result = new PropertyImportResult();
+        List<PropertyRequest> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                try {
+                    PropertyRequest request = csv ? fromCsv(header, parseCsvLine(line)) : fromJson(line);
+                    validate(request);
+                    batch.add(request);
+                    batchLines.add(lineNumber);
+                } catch (Exception e) {
+                    reject(result, lineNumber, e);
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch, batchLines, landlord, result);
+                }
+            }
+            flush(batch, batchLines, landlord, result);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import body: " + e.getMessage(), e);
+        }
+        return result;
+    }
+
+    private void flush(List<PropertyRequest> batch, List<Long> batchLines, User landlord,
+            PropertyImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch, landlord));
+            result.setImported(result.getImported() + batch.size());
+        } catch (Exception e) {
+            for (Long line : batchLines) {
+                reject(result, line, e);
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void insertBatch(List<PropertyRequest> batch, User landlord) {
+        List<Long> ids = reserveIds(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> properties = new ArrayList<>(batch.size());
+        List<Object[]> amenities = new ArrayList<>();
+        List<Object[]> utilities = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PropertyRequest r = batch.get(i);
+            Long id = ids.get(i);
+            LocalDate availableFrom = r.getAvailableFrom() != null ? r.getAvailableFrom() : LocalDate.now();
+            properties.add(new Object[] { id, r.getTitle(), r.getType(), r.getDescription(), r.getAddress(),
+                    r.getNeighborhood(), r.getCity(), r.getDistrict(), r.getBedrooms(), r.getBathrooms(),
+                    r.getArea(), r.getYearBuilt(), r.getParkingSpaces(), r.getFurnished(), r.getVideoUrl(),
+                    r.getPrice(), r.getDeposit(), Date.valueOf(availableFrom), r.getMinLeaseMonths(), r.getPets(),
+                    r.getSmoking(), r.getEvents(), r.getMaxOccupants(), landlord.getId(),
+                    PropertyStatus.PENDING.name(), Timestamp.valueOf(now) });
+            if (r.getAmenities() != null) {
+                r.getAmenities().forEach(a -> amenities.add(new Object[] { id, a }));
+            }
+            if (r.getUtilitiesIncluded() != null) {
+                r.getUtilitiesIncluded().forEach(u -> utilities.add(new Object[] { id, u }));
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PROPERTY, properties);
+        jdbcTemplate.batchUpdate(INSERT_AMENITY, amenities);
+        jdbcTemplate.batchUpdate(INSERT_UTILITY, utilities);
+        catalogVersion.bump();
+
+        // Delivered after commit, like changes made through PropertyService
+        for (int i = 0; i < batch.size(); i++) {
+            eventPublisher.publishEvent(new PropertyChangedEvent(ids.get(i), toSnapshot(ids.get(i), batch.get(i),
+                    landlord)));
+        }
+    }
+
+    // Reserve ids in one round trip so collection rows can reference them without reading keys back. Each
+    // nextval of property_seq hands out a block of ID_ALLOCATION_SIZE ids ending at the returned value, the
+    // same way Hibernate's pooled optimizer reads it, so the two never overlap. The first nextval of a fresh
+    // sequence returns 1, a block holding only id 1, so a second round trip can be needed.
+    private List<Long> reserveIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            List<Long> blockEnds = jdbcTemplate.queryForList("SELECT nextval('property_seq') "
+                    + "FROM generate_series(1, ?)", Long.class, blocksFor(count - ids.size()));
+            addIds(ids, blockEnds, count);
+        }
+        return ids;
+    }
+
+    static int blocksFor(int count) {
+        return (count + Property.ID_ALLOCATION_SIZE - 1) / Property.ID_ALLOCATION_SIZE;
+    }
+
+    // Appends the ids of the blocks ending at blockEnds, in order, until ids holds count
+    static void addIds(List<Long> ids, List<Long> blockEnds, int count) {
+        for (Long end : blockEnds) {
+            long first = Math.max(1, end - Property.ID_ALLOCATION_SIZE + 1);
+            for (long id = first; id <= end && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+    }
+
+    private PropertyRequest fromJson(String line) throws IOException {
+        return objectMapper.readValue(line, PropertyRequest.class);
+    }
+
+    PropertyRequest fromCsv(String[] header, String[] values) {
+        if (values.length > header.length) {
+            throw new RuntimeException("Row has " + values.length + " columns, header has " + header.length);
+        }
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String column = header[i].trim();
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            // List columns hold ';' separated values
+            if (column.equals("amenities") || column.equals("utilitiesIncluded")) {
+                row.put(column, Arrays.stream(value.split(";")).map(String::trim).collect(Collectors.toList()));
+            } else {
+                row.put(column, value);
+            }
+        }
+        return objectMapper.convertValue(row, PropertyRequest.class);
+    }
+
+    static void validate(PropertyRequest request) {
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new RuntimeException("title is required");
+        }
+        if (request.getCity() == null || request.getCity().isBlank()) {
+            throw new RuntimeException("city is required");
+        }
+        if (request.getPrice() <= 0) {
+            throw new RuntimeException("price must be positive");
+        }
+        if (request.getBedrooms() < 0 || request.getBathrooms() < 0) {
+            throw new RuntimeException("bedrooms and bathrooms cannot be negative");
+        }
+    }
+
+    private static void reject(PropertyImportResult result, long line, Exception e) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new PropertyImportResult.RowError(line, e.getMessage()));
+        }
+    }
+
+    // Minimal RFC 4180 field splitting for a single line: quoted fields and doubled quotes, no embedded newlines
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static PropertyResponse toSnapshot(Long id, PropertyRequest r, User landlord) {
+        PropertyResponse response = new PropertyResponse();
+        response.setId(id);
+        response.setTitle(r.getTitle());
+        response.setType(r.getType());
+        response.setDescription(r.getDescription());
+        response.setAddress(r.getAddress());
+        response.setNeighborhood(r.getNeighborhood());
+        response.setCity(r.getCity());
+        response.setDistrict(r.getDistrict());
+        response.setBedrooms(r.getBedrooms());
+        response.setBathrooms(r.getBathrooms());
+        response.setArea(r.getArea());
+        response.setYearBuilt(r.getYearBuilt());
+        response.setParkingSpaces(r.getParkingSpaces());
+        response.setFurnished(r.getFurnished());
+        response.setAmenities(r.getAmenities() != null ? r.getAmenities() : new ArrayList<>());
+        response.setAdditionalPhotos(new ArrayList<>());
+        response.setVideoUrl(r.getVideoUrl());
+        response.setPrice(r.getPrice());
+        response.setDeposit(r.getDeposit());
+        response.setAvailableFrom(r.getAvailableFrom() != null ? r.getAvailableFrom() : LocalDate.now());
+        response.setMinLeaseMonths(r.getMinLeaseMonths());
+        response.setUtilitiesIncluded(r.getUtilitiesIncluded() != null ? r.getUtilitiesIncluded()
+                : new ArrayList<>());
+        response.setPets(r.getPets());
+        response.setSmoking(r.getSmoking());
+        response.setEvents(r.getEvents());
+        response.setMaxOccupants(r.getMaxOccupants());
+        response.setLandlordId(landlord.getId());
+        response.setLandlordName(landlord.getFirstName() + " " + landlord.getLastName());
+        response.setStatus(PropertyStatus.PENDING);
+        return response;
+    }
+}
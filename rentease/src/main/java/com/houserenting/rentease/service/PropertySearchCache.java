@@ -0,0 +1,152 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+// Result cache in front of the search index, keyed on a normalized parameter tuple.
+// An entry holds the matches of a widened query (case-insensitive location, price range rounded out to
+// whole buckets), and each caller's exact filters are re-applied to it, so nearby searches share an entry
+// without changing results. Entries expire by TTL, by LRU order, and whenever a property change bumps
+// the index generation.
+@Component
+public class PropertySearchCache {
+
+    private final PropertySearchIndex searchIndex;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final double priceBucket;
+
+    private final Map<Key, Entry> entries;
+
+    public PropertySearchCache(PropertySearchIndex searchIndex,
+            @Value("${search.cache.max-entries:500}") int maxEntries,
+            @Value("${search.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${search.cache.price-bucket:50}") double priceBucket) {
+        this.searchIndex = searchIndex;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.priceBucket = priceBucket;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > PropertySearchCache.this.maxEntries;
+            }
+        };
+    }
+
+    public List<PropertyResponse> search(String location, Double minPrice, Double maxPrice, String propertyType,
+            Integer bedrooms, Boolean available, Long landlordId) {
+        Key key = new Key(
+                location != null ? location.trim().toLowerCase(Locale.ROOT) : null,
+                minPrice != null ? Math.floor(minPrice / priceBucket) * priceBucket : null,
+                maxPrice != null ? Math.ceil(maxPrice / priceBucket) * priceBucket : null,
+                propertyType,
+                bedrooms,
+                available != null,
+                landlordId);
+
+        return load(key).stream()
+                .filter(p -> PropertySearchIndex.matches(p, location, false, minPrice, maxPrice, propertyType,
+                        bedrooms, available, landlordId))
+                .collect(Collectors.toList());
+    }
+
+    private List<PropertyResponse> load(Key key) {
+        long now = System.currentTimeMillis();
+        long currentGeneration = searchIndex.getGeneration();
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.generation != currentGeneration || now - entry.createdAt > ttlMillis) {
+                // Single flight: concurrent misses on the same key wait for this one load
+                entry = new Entry(currentGeneration, now);
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                entry.result.complete(searchIndex.search(key.location, true, key.minPrice, key.maxPrice,
+                        key.propertyType, key.bedrooms, key.approvedOnly ? Boolean.TRUE : null, key.landlordId));
+            } catch (RuntimeException e) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.result.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private static class Entry {
+        private final long generation;
+        private final long createdAt;
+        private final CompletableFuture<List<PropertyResponse>> result = new CompletableFuture<>();
+
+        private Entry(long generation, long createdAt) {
+            this.generation = generation;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static class Key {
+        private final String location;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final String propertyType;
+        private final Integer bedrooms;
+        private final boolean approvedOnly;
+        private final Long landlordId;
+
+        private Key(String location, Double minPrice, Double maxPrice, String propertyType, Integer bedrooms,
+                boolean approvedOnly, Long landlordId) {
+            this.location = location;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.propertyType = propertyType;
+            this.bedrooms = bedrooms;
+            this.approvedOnly = approvedOnly;
+            this.landlordId = landlordId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return approvedOnly == other.approvedOnly
+                    && Objects.equals(location, other.location)
+                    && Objects.equals(minPrice, other.minPrice)
+                    && Objects.equals(maxPrice, other.maxPrice)
+                    && Objects.equals(propertyType, other.propertyType)
+                    && Objects.equals(bedrooms, other.bedrooms)
+                    && Objects.equals(landlordId, other.landlordId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, minPrice, maxPrice, propertyType, bedrooms, approvedOnly, landlordId);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyFacets;
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.event.PropertyChangedEvent;
+import com.houserenting.rentease.model.PropertyStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory index answering PropertyRepository.searchProperties without touching the database.
+// Location terms (city, district, neighborhood values) are kept in a small dictionary with
+// lower-cased trigram postings so that the "LIKE %location%" substring semantics are preserved
+// (and a case-insensitive variant can be served), while price is held in a sorted map and the
+// equality filters in plain posting maps.
+@Component
+public class PropertySearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Lower bounds of the fixed price facet buckets; the last bucket is open-ended
+    static final double[] PRICE_BUCKETS = {0, 500, 1000, 1500, 2000, 3000};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PropertyResponse> properties = new HashMap<>();
+
+    // location term -> property ids, and lower-cased trigram -> location terms
+    private final Map<String, Set<Long>> locationPostings = new HashMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+
+    private final NavigableMap<Double, Set<Long>> byPrice = new TreeMap<>();
+    private final Map<Integer, Set<Long>> byBedrooms = new HashMap<>();
+    private final Map<String, Set<Long>> byType = new HashMap<>();
+    private final Map<PropertyStatus, Set<Long>> byStatus = new HashMap<>();
+    private final Map<Long, Set<Long>> byLandlord = new HashMap<>();
+
+    // Facet-only postings and counters, maintained on every change so unfiltered facets are read directly
+    private final Map<String, Set<Long>> byCity = new HashMap<>();
+    private final Map<String, Set<Long>> byFurnished = new HashMap<>();
+    private final long[] priceBucketCounts = new long[PRICE_BUCKETS.length];
+
+    // Changes seen since beginRebuild, null when no rebuild is in progress
+    private List<PropertyChangedEvent> duringRebuild;
+
+    private volatile boolean ready = false;
+
+    // Bumped on every applied change so result caches built on top of the index can tell they are stale
+    private volatile long generation = 0;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public PropertyResponse get(Long propertyId) {
+        lock.readLock().lock();
+        try {
+            return properties.get(propertyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called before the rebuild's snapshot is loaded: changes applied from then on are kept and replayed over the
+    // snapshot, so a change committed while it loads is not lost however the two interleave
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The snapshot could not be loaded; the index keeps its current state
+    public void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<PropertyResponse> snapshots) {
+        lock.writeLock().lock();
+        try {
+            properties.clear();
+            locationPostings.clear();
+            trigramTerms.clear();
+            byPrice.clear();
+            byBedrooms.clear();
+            byType.clear();
+            byStatus.clear();
+            byLandlord.clear();
+            byCity.clear();
+            byFurnished.clear();
+            Arrays.fill(priceBucketCounts, 0);
+            snapshots.forEach(this::add);
+            if (duringRebuild != null) {
+                duringRebuild.forEach(this::apply);
+                duringRebuild = null;
+            }
+            generation++;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        PropertyResponse previous = properties.get(event.getPropertyId());
+        if (previous != null) {
+            remove(previous);
+        }
+        if (!event.isDeleted()) {
+            add(event.getSnapshot());
+        }
+    }
+
+    public List<PropertyResponse> search(String location, Double minPrice, Double maxPrice,
+            String propertyType, Integer bedrooms, Boolean available, Long landlordId) {
+        return search(location, false, minPrice, maxPrice, propertyType, bedrooms, available, landlordId);
+    }
+
+    // With ignoreCase the location must already be lower-cased; matches are a superset of the exact search
+    public List<PropertyResponse> search(String location, boolean ignoreCase, Double minPrice, Double maxPrice,
+            String propertyType, Integer bedrooms, Boolean available, Long landlordId) {
+        lock.readLock().lock();
+        try {
+            List<Collection<Long>> drivers = new ArrayList<>();
+            if (propertyType != null) {
+                drivers.add(byType.getOrDefault(propertyType, Collections.emptySet()));
+            }
+            if (bedrooms != null) {
+                drivers.add(byBedrooms.getOrDefault(bedrooms, Collections.emptySet()));
+            }
+            if (landlordId != null) {
+                drivers.add(byLandlord.getOrDefault(landlordId, Collections.emptySet()));
+            }
+            if (available != null) {
+                drivers.add(byStatus.getOrDefault(PropertyStatus.APPROVED, Collections.emptySet()));
+            }
+            if (location != null) {
+                drivers.add(matchLocation(location, ignoreCase));
+            }
+
+            Collection<Long> candidates = null;
+            for (Collection<Long> driver : drivers) {
+                if (candidates == null || driver.size() < candidates.size()) {
+                    candidates = driver;
+                }
+            }
+            if (candidates == null) {
+                candidates = (minPrice != null || maxPrice != null)
+                        ? priceRange(minPrice, maxPrice)
+                        : properties.keySet();
+            }
+
+            List<PropertyResponse> results = new ArrayList<>();
+            for (Long id : candidates) {
+                PropertyResponse property = properties.get(id);
+                if (matches(property, location, ignoreCase, minPrice, maxPrice, propertyType, bedrooms, available,
+                        landlordId)) {
+                    results.add(property);
+                }
+            }
+            results.sort((a, b) -> a.getId().compareTo(b.getId()));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facet counts over the whole catalog, read from the maintained postings without touching any property
+    public PropertyFacets facets() {
+        lock.readLock().lock();
+        try {
+            PropertyFacets facets = new PropertyFacets();
+            facets.setTotal(properties.size());
+            facets.setCity(sizes(byCity));
+            facets.setType(sizes(byType));
+            facets.setBedrooms(sizes(byBedrooms));
+            facets.setFurnished(sizes(byFurnished));
+            facets.setPrice(priceBuckets(priceBucketCounts));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facet counts over a search result, one pass over the matches
+    public static PropertyFacets facetsOf(Collection<PropertyResponse> matches) {
+        Map<String, Long> city = new TreeMap<>();
+        Map<String, Long> type = new TreeMap<>();
+        Map<Integer, Long> bedrooms = new TreeMap<>();
+        Map<String, Long> furnished = new TreeMap<>();
+        long[] priceCounts = new long[PRICE_BUCKETS.length];
+        for (PropertyResponse p : matches) {
+            increment(city, p.getCity());
+            increment(type, p.getType());
+            increment(bedrooms, p.getBedrooms());
+            increment(furnished, p.getFurnished());
+            priceCounts[priceBucket(p.getPrice())]++;
+        }
+        PropertyFacets facets = new PropertyFacets();
+        facets.setTotal(matches.size());
+        facets.setCity(city);
+        facets.setType(type);
+        facets.setBedrooms(bedrooms);
+        facets.setFurnished(furnished);
+        facets.setPrice(priceBuckets(priceCounts));
+        return facets;
+    }
+
+    private static int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket + 1 < PRICE_BUCKETS.length && price >= PRICE_BUCKETS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<PropertyFacets.PriceBucket> priceBuckets(long[] counts) {
+        List<PropertyFacets.PriceBucket> buckets = new ArrayList<>();
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            Double max = i + 1 < PRICE_BUCKETS.length ? PRICE_BUCKETS[i + 1] : null;
+            buckets.add(new PropertyFacets.PriceBucket(PRICE_BUCKETS[i], max, counts[i]));
+        }
+        return buckets;
+    }
+
+    private static <K> Map<K, Long> sizes(Map<K, Set<Long>> postings) {
+        Map<K, Long> counts = new TreeMap<>();
+        postings.forEach((key, ids) -> counts.put(key, (long) ids.size()));
+        return counts;
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    static boolean matches(PropertyResponse p, String location, boolean ignoreCase, Double minPrice,
+            Double maxPrice, String propertyType, Integer bedrooms, Boolean available, Long landlordId) {
+        if (location != null && !contains(p.getCity(), location, ignoreCase)
+                && !contains(p.getDistrict(), location, ignoreCase)
+                && !contains(p.getNeighborhood(), location, ignoreCase)) {
+            return false;
+        }
+        if (minPrice != null && p.getPrice() < minPrice) {
+            return false;
+        }
+        if (maxPrice != null && p.getPrice() > maxPrice) {
+            return false;
+        }
+        if (propertyType != null && !propertyType.equals(p.getType())) {
+            return false;
+        }
+        if (bedrooms != null && p.getBedrooms() != bedrooms) {
+            return false;
+        }
+        if (available != null && p.getStatus() != PropertyStatus.APPROVED) {
+            return false;
+        }
+        return landlordId == null || landlordId.equals(p.getLandlordId());
+    }
+
+    private static boolean contains(String value, String location, boolean ignoreCase) {
+        return value != null && (ignoreCase ? value.toLowerCase(Locale.ROOT) : value).contains(location);
+    }
+
+    private Set<Long> matchLocation(String location, boolean ignoreCase) {
+        Collection<String> terms;
+        if (location.length() < GRAM) {
+            terms = locationPostings.keySet();
+        } else {
+            Set<String> smallest = null;
+            for (String gram : trigrams(location.toLowerCase(Locale.ROOT))) {
+                Set<String> candidates = trigramTerms.get(gram);
+                if (candidates == null) {
+                    return Collections.emptySet();
+                }
+                if (smallest == null || candidates.size() < smallest.size()) {
+                    smallest = candidates;
+                }
+            }
+            terms = smallest;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (String term : terms) {
+            if (contains(term, location, ignoreCase)) {
+                ids.addAll(locationPostings.get(term));
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> priceRange(Double minPrice, Double maxPrice) {
+        NavigableMap<Double, Set<Long>> range = byPrice;
+        if (minPrice != null && maxPrice != null) {
+            if (minPrice > maxPrice) {
+                return Collections.emptySet();
+            }
+            range = byPrice.subMap(minPrice, true, maxPrice, true);
+        } else if (minPrice != null) {
+            range = byPrice.tailMap(minPrice, true);
+        } else if (maxPrice != null) {
+            range = byPrice.headMap(maxPrice, true);
+        }
+        Set<Long> ids = new HashSet<>();
+        range.values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private void add(PropertyResponse p) {
+        Long id = p.getId();
+        properties.put(id, p);
+        for (String term : locationTerms(p)) {
+            Set<Long> postings = locationPostings.computeIfAbsent(term, k -> new HashSet<>());
+            if (postings.isEmpty()) {
+                for (String gram : trigrams(term.toLowerCase(Locale.ROOT))) {
+                    trigramTerms.computeIfAbsent(gram, k -> new HashSet<>()).add(term);
+                }
+            }
+            postings.add(id);
+        }
+        put(byPrice, p.getPrice(), id);
+        put(byBedrooms, p.getBedrooms(), id);
+        put(byType, p.getType(), id);
+        put(byStatus, p.getStatus(), id);
+        put(byLandlord, p.getLandlordId(), id);
+        put(byCity, p.getCity(), id);
+        put(byFurnished, p.getFurnished(), id);
+        priceBucketCounts[priceBucket(p.getPrice())]++;
+    }
+
+    private void remove(PropertyResponse p) {
+        Long id = p.getId();
+        properties.remove(id);
+        for (String term : locationTerms(p)) {
+            Set<Long> postings = locationPostings.get(term);
+            if (postings == null) {
+                continue;
+            }
+            postings.remove(id);
+            if (postings.isEmpty()) {
+                locationPostings.remove(term);
+                for (String gram : trigrams(term.toLowerCase(Locale.ROOT))) {
+                    Set<String> terms = trigramTerms.get(gram);
+                    if (terms != null) {
+                        terms.remove(term);
+                        if (terms.isEmpty()) {
+                            trigramTerms.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+        take(byPrice, p.getPrice(), id);
+        take(byBedrooms, p.getBedrooms(), id);
+        take(byType, p.getType(), id);
+        take(byStatus, p.getStatus(), id);
+        take(byLandlord, p.getLandlordId(), id);
+        take(byCity, p.getCity(), id);
+        take(byFurnished, p.getFurnished(), id);
+        priceBucketCounts[priceBucket(p.getPrice())]--;
+    }
+
+    private static Set<String> locationTerms(PropertyResponse p) {
+        Set<String> terms = new HashSet<>();
+        if (p.getCity() != null) {
+            terms.add(p.getCity());
+        }
+        if (p.getDistrict() != null) {
+            terms.add(p.getDistrict());
+        }
+        if (p.getNeighborhood() != null) {
+            terms.add(p.getNeighborhood());
+        }
+        return terms;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static <K> void put(Map<K, Set<Long>> postings, K key, Long id) {
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static <K> void take(Map<K, Set<Long>> postings, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+}
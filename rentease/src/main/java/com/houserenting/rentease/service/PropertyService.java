@@ -1,14 +1,27 @@
 package com.houserenting.rentease.service;
 
+import com.houserenting.rentease.dto.PriceDistribution;
+import com.houserenting.rentease.dto.PropertyAvailability;
+import com.houserenting.rentease.dto.PropertyFacets;
+import com.houserenting.rentease.dto.PropertyPage;
 import com.houserenting.rentease.dto.PropertyRequest;
 import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.event.PropertyChangedEvent;
+import com.houserenting.rentease.model.BookingStatus;
 import com.houserenting.rentease.model.Property;
 import com.houserenting.rentease.model.PropertyStatus;
 import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.BookingRepository;
 import com.houserenting.rentease.repository.PropertyRepository;
 import com.houserenting.rentease.repository.UserRepository;
+import com.houserenting.rentease.util.PriceSketch;
+import com.houserenting.rentease.util.PropertyCursor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,11 +29,19 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -29,8 +50,22 @@ import jakarta.persistence.PersistenceContext;
 @RequiredArgsConstructor
 public class PropertyService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int COLLECTION_FETCH_BATCH = 1000;
+    private static final int STREAM_CHUNK = 500;
+    private static final int DEFAULT_AVAILABILITY_DAYS = 90;
+
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final PropertySearchIndex searchIndex;
+    private final PropertySearchCache searchCache;
+    private final PriceDistributionIndex priceDistributionIndex;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final PropertyCatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -38,6 +73,9 @@ public class PropertyService {
     @Value("${server.port}")
     private String serverPort;
 
+    @Value("${price.histogram.bucket-width:100}")
+    private double defaultBucketWidth;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -64,6 +102,39 @@ public class PropertyService {
     }
 
     private PropertyResponse convertToPropertyResponse(Property property) {
+        return convertToPropertyResponse(property, copyOf(property.getAmenities()),
+                copyOf(property.getAdditionalPhotos()), copyOf(property.getUtilitiesIncluded()));
+    }
+
+    // Listing read path: element collections are fetched in one batched query each, keyed by property id,
+    // instead of being lazily loaded per property
+    private List<PropertyResponse> convertToPropertyResponses(List<Property> properties) {
+        List<Long> ids = properties.stream().map(Property::getId).collect(Collectors.toList());
+        Map<Long, List<String>> amenities = new HashMap<>();
+        Map<Long, List<String>> additionalPhotos = new HashMap<>();
+        Map<Long, List<String>> utilitiesIncluded = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += COLLECTION_FETCH_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + COLLECTION_FETCH_BATCH, ids.size()));
+            groupByPropertyId(propertyRepository.findAmenitiesByPropertyIds(batch), amenities);
+            groupByPropertyId(propertyRepository.findAdditionalPhotosByPropertyIds(batch), additionalPhotos);
+            groupByPropertyId(propertyRepository.findUtilitiesIncludedByPropertyIds(batch), utilitiesIncluded);
+        }
+        return properties.stream()
+                .map(property -> convertToPropertyResponse(property,
+                        amenities.getOrDefault(property.getId(), new ArrayList<>()),
+                        additionalPhotos.getOrDefault(property.getId(), new ArrayList<>()),
+                        utilitiesIncluded.getOrDefault(property.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private static void groupByPropertyId(List<Object[]> rows, Map<Long, List<String>> target) {
+        for (Object[] row : rows) {
+            target.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+    }
+
+    private PropertyResponse convertToPropertyResponse(Property property, List<String> amenities,
+            List<String> additionalPhotos, List<String> utilitiesIncluded) {
         PropertyResponse response = new PropertyResponse();
         response.setId(property.getId());
         response.setTitle(property.getTitle());
@@ -79,15 +150,15 @@ public class PropertyService {
         response.setYearBuilt(property.getYearBuilt());
         response.setParkingSpaces(property.getParkingSpaces());
         response.setFurnished(property.getFurnished());
-        response.setAmenities(property.getAmenities());
+        response.setAmenities(amenities);
         response.setMainPhoto(property.getMainPhoto());
-        response.setAdditionalPhotos(property.getAdditionalPhotos());
+        response.setAdditionalPhotos(additionalPhotos);
         response.setVideoUrl(property.getVideoUrl());
         response.setPrice(property.getPrice());
         response.setDeposit(property.getDeposit());
         response.setAvailableFrom(property.getAvailableFrom());
         response.setMinLeaseMonths(property.getMinLeaseMonths());
-        response.setUtilitiesIncluded(property.getUtilitiesIncluded());
+        response.setUtilitiesIncluded(utilitiesIncluded);
         response.setPets(property.getPets());
         response.setSmoking(property.getSmoking());
         response.setEvents(property.getEvents());
@@ -98,6 +169,29 @@ public class PropertyService {
         return response;
     }
 
+    // Detach element collections from the persistence context so snapshots outlive the session
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmIndexes() {
+        searchIndex.beginRebuild();
+        priceDistributionIndex.beginRebuild();
+        List<PropertyResponse> snapshots;
+        try {
+            snapshots = convertToPropertyResponses(propertyRepository.findAll());
+        } catch (RuntimeException e) {
+            searchIndex.cancelRebuild();
+            priceDistributionIndex.cancelRebuild();
+            throw e;
+        }
+        searchIndex.rebuild(snapshots);
+        priceDistributionIndex.rebuild(snapshots);
+    }
+
+    @Transactional
     public PropertyResponse createProperty(PropertyRequest request, List<MultipartFile> images, Long landlordId) {
         try {
             ensureUploadDirectoryExists();
@@ -157,17 +251,27 @@ public class PropertyService {
             }
 
             Property savedProperty = propertyRepository.save(property);
-            return convertToPropertyResponse(savedProperty);
+            catalogVersion.bump();
+            PropertyResponse response = convertToPropertyResponse(savedProperty);
+            eventPublisher.publishEvent(new PropertyChangedEvent(savedProperty.getId(), response));
+            return response;
         } catch (Exception e) {
             throw new RuntimeException("Failed to create property: " + e.getMessage(), e);
         }
     }
 
     public List<PropertyResponse> getPropertiesByLandlord(Long landlordId) {
-        return propertyRepository.findByLandlordId(landlordId)
-                .stream()
-                .map(this::convertToPropertyResponse)
-                .collect(Collectors.toList());
+        return convertToPropertyResponses(propertyRepository.findByLandlordId(landlordId));
+    }
+
+    public Optional<PropertyRepository.VersionView> getPropertyVersion(Long propertyId) {
+        return propertyRepository.findVersionById(propertyId);
+    }
+
+    public PropertyAvailability getAvailability(Long propertyId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        return availabilityCalendar.availability(propertyId, start, end);
     }
 
     public PropertyResponse getPropertyById(Long propertyId) {
@@ -177,37 +281,175 @@ public class PropertyService {
     }
 
     public List<PropertyResponse> getAllProperties() {
-        return propertyRepository.findAll()
-                .stream()
-                .map(this::convertToPropertyResponse)
-                .collect(Collectors.toList());
+        return convertToPropertyResponses(propertyRepository.findAll());
+    }
+
+    // Streamed listing: rows come off a server-side cursor and are converted and handed to the sink a chunk
+    // at a time, clearing the persistence context after each chunk so memory stays flat whatever the catalog size
+    @Transactional(readOnly = true)
+    public void streamProperties(PropertyStatus status, Consumer<List<PropertyResponse>> sink) {
+        try (Stream<Property> rows = propertyRepository.streamByStatus(status)) {
+            List<Property> chunk = new ArrayList<>(STREAM_CHUNK);
+            Iterator<Property> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK) {
+                    sink.accept(convertToPropertyResponses(chunk));
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sink.accept(convertToPropertyResponses(chunk));
+                entityManager.clear();
+            }
+        }
     }
 
     public List<PropertyResponse> getAllAvailableProperties() {
-        return propertyRepository.findByStatus(PropertyStatus.APPROVED)
-                .stream()
-                .map(this::convertToPropertyResponse)
-                .collect(Collectors.toList());
+        return convertToPropertyResponses(propertyRepository.findByStatus(PropertyStatus.APPROVED));
     }
 
     public List<PropertyResponse> getApprovedProperties() {
-        return propertyRepository.findByStatus(PropertyStatus.APPROVED)
-                .stream()
-                .map(this::convertToPropertyResponse)
-                .collect(Collectors.toList());
+        return convertToPropertyResponses(propertyRepository.findByStatus(PropertyStatus.APPROVED));
     }
 
     public List<PropertyResponse> searchProperties(String location, Double minPrice, Double maxPrice,
             String propertyType, Integer bedrooms, Boolean available, Long landlordId) {
-        return propertyRepository.searchProperties(location, minPrice, maxPrice, propertyType, bedrooms, available,
-                landlordId)
+        if (searchIndex.isReady()) {
+            return searchCache.search(location, minPrice, maxPrice, propertyType, bedrooms, available, landlordId);
+        }
+        return convertToPropertyResponses(propertyRepository.searchProperties(location, minPrice, maxPrice,
+                propertyType, bedrooms, available, landlordId));
+    }
+
+    // Search restricted to properties free for the stay [availableFrom, availableTo): available from the start
+    // date and without an approved booking overlapping it. A missing end defaults to a one-month stay, a
+    // missing start to today. Candidates come from the regular search and are intersected with the booking
+    // interval index, so no per-property booking query is run.
+    public List<PropertyResponse> searchProperties(String location, Double minPrice, Double maxPrice,
+            String propertyType, Integer bedrooms, Boolean available, Long landlordId, LocalDate availableFrom,
+            LocalDate availableTo) {
+        List<PropertyResponse> candidates = searchProperties(location, minPrice, maxPrice, propertyType, bedrooms,
+                available, landlordId);
+        if (availableFrom == null && availableTo == null) {
+            return candidates;
+        }
+        LocalDate start = availableFrom != null ? availableFrom : LocalDate.now();
+        LocalDate end = availableTo != null ? availableTo : start.plusMonths(1);
+        if (!end.isAfter(start)) {
+            throw new RuntimeException("availableTo must be after availableFrom");
+        }
+
+        List<PropertyResponse> open = candidates.stream()
+                .filter(p -> p.getAvailableFrom() == null || !p.getAvailableFrom().isAfter(start))
+                .collect(Collectors.toList());
+        Set<Long> booked = bookedDuring(open.stream().map(PropertyResponse::getId).collect(Collectors.toList()),
+                start, end);
+        return open.stream()
+                .filter(p -> !booked.contains(p.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> bookedDuring(List<Long> propertyIds, LocalDate start, LocalDate end) {
+        if (bookingIntervalIndex.isReady()) {
+            return bookingIntervalIndex.booked(propertyIds, start, end);
+        }
+        Set<Long> booked = new HashSet<>();
+        for (int from = 0; from < propertyIds.size(); from += COLLECTION_FETCH_BATCH) {
+            booked.addAll(bookingRepository.findPropertyIdsWithOverlapping(
+                    propertyIds.subList(from, Math.min(from + COLLECTION_FETCH_BATCH, propertyIds.size())),
+                    BookingStatus.APPROVED, start, end));
+        }
+        return booked;
+    }
+
+    public PropertyFacets getFacets(String location, Double minPrice, Double maxPrice, String propertyType,
+            Integer bedrooms, Boolean available, Long landlordId) {
+        boolean unfiltered = location == null && minPrice == null && maxPrice == null && propertyType == null
+                && bedrooms == null && available == null && landlordId == null;
+        if (unfiltered && searchIndex.isReady()) {
+            return searchIndex.facets();
+        }
+        return PropertySearchIndex.facetsOf(searchProperties(location, minPrice, maxPrice, propertyType, bedrooms,
+                available, landlordId));
+    }
+
+    public PropertyPage getAllProperties(String cursor, String sort, Integer size) {
+        return findPage(null, null, cursor, sort, size);
+    }
+
+    public PropertyPage getApprovedProperties(String cursor, String sort, Integer size) {
+        return findPage(PropertyStatus.APPROVED, null, cursor, sort, size);
+    }
+
+    public PropertyPage getPropertiesByLandlord(Long landlordId, String cursor, String sort, Integer size) {
+        return findPage(null, landlordId, cursor, sort, size);
+    }
+
+    public PropertyPage searchProperties(String location, Double minPrice, Double maxPrice, String propertyType,
+            Integer bedrooms, Boolean available, Long landlordId, LocalDate availableFrom, LocalDate availableTo,
+            String cursor, String sort, Integer size) {
+        PropertyCursor after = cursor != null ? PropertyCursor.decode(cursor) : null;
+        PropertyCursor.Sort order = after != null ? after.getSort() : PropertyCursor.Sort.fromParam(sort);
+        int limit = pageSize(size);
+
+        // Search is answered in memory, so the keyset is applied to the matches directly
+        List<PropertyResponse> rows = searchProperties(location, minPrice, maxPrice, propertyType, bedrooms,
+                available, landlordId, availableFrom, availableTo)
                 .stream()
-                .map(this::convertToPropertyResponse)
+                .filter(p -> after == null || after.precedes(p))
+                .sorted(order.comparator())
+                .limit(limit + 1L)
                 .collect(Collectors.toList());
+        boolean hasNext = rows.size() > limit;
+        List<PropertyResponse> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        return toPage(content, order, hasNext);
+    }
+
+    private PropertyPage findPage(PropertyStatus status, Long landlordId, String cursor, String sort, Integer size) {
+        PropertyCursor after = cursor != null ? PropertyCursor.decode(cursor) : null;
+        PropertyCursor.Sort order = after != null ? after.getSort() : PropertyCursor.Sort.fromParam(sort);
+        int limit = pageSize(size);
+
+        // Fetch one extra row to learn whether another page exists
+        List<Property> rows = propertyRepository.findPage(status, landlordId, order, after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<PropertyResponse> content = convertToPropertyResponses(hasNext ? rows.subList(0, limit) : rows);
+        return toPage(content, order, hasNext);
     }
 
-    public List<Map<String, Object>> getPropertyPriceDistribution(Long landlordId) {
-        return propertyRepository.getPropertyPriceDistribution(landlordId);
+    private static PropertyPage toPage(List<PropertyResponse> content, PropertyCursor.Sort order, boolean hasNext) {
+        String nextCursor = hasNext ? PropertyCursor.after(order, content.get(content.size() - 1)).encode() : null;
+        return new PropertyPage(content, nextCursor);
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    public List<Map<String, Object>> getPropertyPriceDistribution(Long landlordId, Double bucketWidth) {
+        return getPriceDistribution(landlordId, null, bucketWidth).getBuckets();
+    }
+
+    public PriceDistribution getPriceDistribution(Long landlordId, String city, Double bucketWidth) {
+        if (landlordId != null && city != null) {
+            throw new RuntimeException("Specify either landlordId or city, not both");
+        }
+        double width = bucketWidth != null && bucketWidth > 0 ? bucketWidth : defaultBucketWidth;
+        if (priceDistributionIndex.isReady()) {
+            return priceDistributionIndex.distribution(landlordId, city, width);
+        }
+
+        // Until the index is warmed, build the sketch from the grouped query
+        PriceSketch sketch = new PriceSketch(priceDistributionIndex.getResolution());
+        for (Map<String, Object> row : propertyRepository.getPropertyPriceDistribution(landlordId, city)) {
+            sketch.add(((Number) row.get("price")).doubleValue(), ((Number) row.get("count")).longValue());
+        }
+        return PriceDistributionIndex.describe(sketch, width);
     }
 
     @Transactional
@@ -228,17 +470,26 @@ public class PropertyService {
             property.getAdditionalPhotos().forEach(this::deleteImageFile);
         }
 
+        // Each native delete declares the table it touches; otherwise Hibernate evicts every second-level
+        // cache region. The entries of this property are evicted below when its collections are cleared.
+
         // First delete from property_additionalphotos table
         entityManager.createNativeQuery("DELETE FROM property_additionalphotos WHERE property_id = :propertyId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("property_additionalphotos")
                 .setParameter("propertyId", propertyId)
                 .executeUpdate();
 
         // Then delete from other join tables
         entityManager.createNativeQuery("DELETE FROM property_amenities WHERE property_id = :propertyId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("property_amenities")
                 .setParameter("propertyId", propertyId)
                 .executeUpdate();
 
         entityManager.createNativeQuery("DELETE FROM property_utilitiesincluded WHERE property_id = :propertyId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("property_utilitiesincluded")
                 .setParameter("propertyId", propertyId)
                 .executeUpdate();
 
@@ -252,6 +503,8 @@ public class PropertyService {
 
         // Now delete the property
         propertyRepository.delete(property);
+        catalogVersion.bump();
+        eventPublisher.publishEvent(new PropertyChangedEvent(propertyId, null));
     }
 
     @Transactional
@@ -326,9 +579,14 @@ public class PropertyService {
             property.setSmoking(request.getSmoking());
             property.setEvents(request.getEvents());
             property.setMaxOccupants(request.getMaxOccupants());
+            // Always dirty the row so updatedAt and the version move even when only collections changed
+            property.setUpdatedAt(LocalDateTime.now());
 
             Property updatedProperty = propertyRepository.save(property);
-            return convertToPropertyResponse(updatedProperty);
+            catalogVersion.bump();
+            PropertyResponse response = convertToPropertyResponse(updatedProperty);
+            eventPublisher.publishEvent(new PropertyChangedEvent(updatedProperty.getId(), response));
+            return response;
         } catch (Exception e) {
             throw new RuntimeException("Failed to update property: " + e.getMessage(), e);
         }
@@ -0,0 +1,159 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.UnreadCounts;
+import com.houserenting.rentease.event.MessageSentEvent;
+import com.houserenting.rentease.event.MessagesReadEvent;
+import com.houserenting.rentease.model.ChatUnread;
+import com.houserenting.rentease.repository.ChatUnreadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Unread counts per user and chat. The chat_unread table is the source of truth, written in the same transaction
+// as the message or the read; this cache keeps each recently asked-for user's counters in memory so the chat list
+// reads them without a query. Users are spread over lock stripes, each a small LRU, so updates for different
+// users rarely contend. After commit a changed counter is re-read by primary key rather than incremented in
+// place, so a load racing with the change can never count a message twice.
+//
+// Queries run outside the stripe's monitor, which only guards the maps. Each query takes a ticket from its stripe
+// first, and its result is applied only if nothing with a later ticket was applied to the same counter, so a slow
+// read cannot overwrite a newer one. A load is not cached when a change to that user was skipped while it ran.
+@Component
+public class UnreadCounters {
+
+    private static final int STRIPES = 64;
+
+    private final ChatUnreadRepository unreadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+
+    public UnreadCounters(ChatUnreadRepository unreadRepository, TransactionTemplate transactionTemplate,
+            @Value("${chat.unread.cache.max-users:50000}") int maxUsers) {
+        this.unreadRepository = unreadRepository;
+        this.transactionTemplate = transactionTemplate;
+        int perStripe = Math.max(1, maxUsers / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Cached> users;
+        private long tickets;
+        // Ticket of the latest change to a user who was not cached
+        private long lastUncachedChange;
+
+        private Stripe(int maxUsers) {
+            this.users = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                    return size() > maxUsers;
+                }
+            };
+        }
+    }
+
+    private static final class Cached {
+        private final Map<Long, Long> unread;
+        private final long loadedAt;
+        private final Map<Long, Long> changedAt = new HashMap<>();
+
+        private Cached(Map<Long, Long> unread, long loadedAt) {
+            this.unread = unread;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // Seeds the table from existing unread messages the first time the application runs with it
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (unreadRepository.count() == 0) {
+            transactionTemplate.executeWithoutResult(status -> unreadRepository.seedFromMessages());
+        }
+    }
+
+    public UnreadCounts counts(Long userId) {
+        Stripe stripe = stripeFor(userId);
+        long ticket;
+        synchronized (stripe) {
+            Cached cached = stripe.users.get(userId);
+            if (cached != null) {
+                return summarize(new HashMap<>(cached.unread));
+            }
+            ticket = ++stripe.tickets;
+        }
+        Map<Long, Long> loaded = load(userId);
+        synchronized (stripe) {
+            Cached cached = stripe.users.get(userId);
+            if (cached != null) {
+                // Another load finished first
+                return summarize(new HashMap<>(cached.unread));
+            }
+            if (stripe.lastUncachedChange < ticket) {
+                stripe.users.put(userId, new Cached(new HashMap<>(loaded), ticket));
+            }
+        }
+        return summarize(loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        refresh(event.getMessage().getReceiverId(), event.getMessage().getChatId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessagesRead(MessagesReadEvent event) {
+        refresh(event.getUserId(), event.getChatId());
+    }
+
+    private void refresh(Long userId, Long chatId) {
+        Stripe stripe = stripeFor(userId);
+        long ticket;
+        synchronized (stripe) {
+            ticket = ++stripe.tickets;
+            if (!stripe.users.containsKey(userId)) {
+                // Not cached: the next read loads it from the table
+                stripe.lastUncachedChange = ticket;
+                return;
+            }
+        }
+        long unread = unreadRepository.findUnread(chatId, userId).orElse(0L);
+        synchronized (stripe) {
+            Cached cached = stripe.users.get(userId);
+            if (cached == null || ticket < cached.loadedAt || ticket < cached.changedAt.getOrDefault(chatId, 0L)) {
+                return;
+            }
+            cached.changedAt.put(chatId, ticket);
+            if (unread > 0) {
+                cached.unread.put(chatId, unread);
+            } else {
+                cached.unread.remove(chatId);
+            }
+        }
+    }
+
+    private Map<Long, Long> load(Long userId) {
+        Map<Long, Long> chats = new HashMap<>();
+        for (ChatUnread counter : unreadRepository.findByUserIdAndUnreadGreaterThan(userId, 0)) {
+            chats.put(counter.getChatId(), counter.getUnread());
+        }
+        return chats;
+    }
+
+    private static UnreadCounts summarize(Map<Long, Long> chats) {
+        long total = chats.values().stream().mapToLong(Long::longValue).sum();
+        return new UnreadCounts(chats, total);
+    }
+
+    private Stripe stripeFor(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+}
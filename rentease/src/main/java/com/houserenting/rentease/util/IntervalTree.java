@@ -0,0 +1,186 @@
+package com.houserenting.rentease.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Interval tree over half-open [start, end) ranges of longs (epoch days for bookings), each tagged with an id.
+// A treap ordered by (start, id) and augmented with the maximum end of every subtree, so insert, remove and
+// "does anything overlap" run in expected O(log n). Not thread-safe; callers hold their own lock.
+public class IntervalTree {
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final long id;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, long id, int priority) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    private int size;
+    private boolean removed;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(long id, long start, long end) {
+        root = insert(root, new Node(start, end, id, random.nextInt()));
+        size++;
+    }
+
+    public boolean remove(long id, long start) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    public boolean overlaps(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && node.end > start) {
+                return true;
+            }
+            // If the left subtree reaches past start but holds no overlap, nothing to the right can overlap either
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return false;
+    }
+
+    public interface Visitor {
+        void visit(long id, long start, long end);
+    }
+
+    public List<Long> overlapping(long start, long end) {
+        List<Long> ids = new ArrayList<>();
+        forEachOverlapping(start, end, (id, s, e) -> ids.add(id));
+        return ids;
+    }
+
+    // Visits the overlapping ranges in start order
+    public void forEachOverlapping(long start, long end, Visitor visitor) {
+        visit(root, start, end, visitor);
+    }
+
+    private static void visit(Node node, long start, long end, Visitor visitor) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        visit(node.left, start, end, visitor);
+        if (node.start < end) {
+            if (node.end > start) {
+                visitor.visit(node.id, node.start, node.end);
+            }
+            visit(node.right, start, end, visitor);
+        }
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            node = merge(node.left, node.right);
+            if (node == null) {
+                return null;
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+}
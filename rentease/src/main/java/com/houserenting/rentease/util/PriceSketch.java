@@ -0,0 +1,85 @@
+package com.houserenting.rentease.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Price sketch: counts per fixed-resolution price cell. Unlike t-digest it supports removal,
+// which the incrementally maintained distributions need when a property is updated or deleted.
+// Quantiles are interpolated within a cell, so their error is bounded by the resolution.
+public class PriceSketch {
+
+    private final double resolution;
+    private final TreeMap<Long, Long> cells = new TreeMap<>();
+    private long total;
+
+    public PriceSketch(double resolution) {
+        this.resolution = resolution;
+    }
+
+    public double getResolution() {
+        return resolution;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    public void add(double price, long count) {
+        cells.merge(cell(price), count, Long::sum);
+        total += count;
+    }
+
+    public void add(double price) {
+        add(price, 1);
+    }
+
+    public void remove(double price) {
+        Long cell = cell(price);
+        Long count = cells.get(cell);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            cells.put(cell, count - 1);
+        } else {
+            cells.remove(cell);
+        }
+        total--;
+    }
+
+    // Counts per bucket of the given width, keyed by bucket lower bound; width is rounded up to whole cells
+    public TreeMap<Double, Long> histogram(double width) {
+        long cellsPerBucket = Math.max(1, (long) Math.ceil(width / resolution));
+        TreeMap<Double, Long> buckets = new TreeMap<>();
+        for (Map.Entry<Long, Long> entry : cells.entrySet()) {
+            long bucket = Math.floorDiv(entry.getKey(), cellsPerBucket);
+            buckets.merge(bucket * cellsPerBucket * resolution, entry.getValue(), Long::sum);
+        }
+        return buckets;
+    }
+
+    public Double quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        double target = q * total;
+        long seen = 0;
+        for (Map.Entry<Long, Long> entry : cells.entrySet()) {
+            long count = entry.getValue();
+            if (seen + count >= target) {
+                double fraction = count == 0 ? 0 : (target - seen) / count;
+                return (entry.getKey() + fraction) * resolution;
+            }
+            seen += count;
+        }
+        return (cells.lastKey() + 1) * resolution;
+    }
+
+    private long cell(double price) {
+        return (long) Math.floor(price / resolution);
+    }
+}
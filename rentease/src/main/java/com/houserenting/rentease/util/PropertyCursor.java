@@ -0,0 +1,132 @@
+package com.houserenting.rentease.util;
+
+import com.houserenting.rentease.dto.PropertyResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+
+// Opaque keyset cursor for property listings: the sort key plus the (value, id) of the last row served.
+// Rows without an availableFrom sort last; their cursor leaves the value empty.
+public class PropertyCursor {
+
+    public enum Sort {
+        ID("id"),
+        PRICE("price"),
+        AVAILABLE_FROM("availableFrom");
+
+        private final String param;
+
+        Sort(String param) {
+            this.param = param;
+        }
+
+        public static Sort fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return ID;
+            }
+            for (Sort sort : values()) {
+                if (sort.param.equalsIgnoreCase(param)) {
+                    return sort;
+                }
+            }
+            throw new RuntimeException("Unsupported sort: " + param + " (expected price, availableFrom or id)");
+        }
+
+        public Comparator<PropertyResponse> comparator() {
+            Comparator<PropertyResponse> byId = Comparator.comparing(PropertyResponse::getId);
+            switch (this) {
+                case PRICE:
+                    return Comparator.comparingDouble(PropertyResponse::getPrice).thenComparing(byId);
+                case AVAILABLE_FROM:
+                    return Comparator.comparing(PropertyResponse::getAvailableFrom,
+                            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(byId);
+                default:
+                    return byId;
+            }
+        }
+    }
+
+    private final Sort sort;
+    private final Double price;
+    private final LocalDate availableFrom;
+    private final Long id;
+
+    private PropertyCursor(Sort sort, Double price, LocalDate availableFrom, Long id) {
+        this.sort = sort;
+        this.price = price;
+        this.availableFrom = availableFrom;
+        this.id = id;
+    }
+
+    public static PropertyCursor after(Sort sort, PropertyResponse last) {
+        return new PropertyCursor(sort, last.getPrice(), last.getAvailableFrom(), last.getId());
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public LocalDate getAvailableFrom() {
+        return availableFrom;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // True when the given row sorts strictly after this cursor
+    public boolean precedes(PropertyResponse property) {
+        return sort.comparator().compare(toProbe(), property) < 0;
+    }
+
+    private PropertyResponse toProbe() {
+        PropertyResponse probe = new PropertyResponse();
+        probe.setId(id);
+        probe.setPrice(price != null ? price : 0);
+        probe.setAvailableFrom(availableFrom);
+        return probe;
+    }
+
+    public String encode() {
+        String key;
+        switch (sort) {
+            case PRICE:
+                key = String.valueOf(price);
+                break;
+            case AVAILABLE_FROM:
+                key = availableFrom != null ? availableFrom.toString() : "";
+                break;
+            default:
+                key = "";
+        }
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PropertyCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            Sort sort = Sort.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[2]);
+            switch (sort) {
+                case PRICE:
+                    return new PropertyCursor(sort, Double.valueOf(parts[1]), null, id);
+                case AVAILABLE_FROM:
+                    // "null" was written by cursors issued before the empty marker
+                    boolean noDate = parts[1].isEmpty() || "null".equals(parts[1]);
+                    return new PropertyCursor(sort, null, noDate ? null : LocalDate.parse(parts[1]), id);
+                default:
+                    return new PropertyCursor(sort, null, null, id);
+            }
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
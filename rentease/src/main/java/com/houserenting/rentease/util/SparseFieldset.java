@@ -0,0 +1,45 @@
+package com.houserenting.rentease.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// "fields=id,status,startDate" sparse fieldsets for response DTOs. Without the parameter a body is returned
+// unchanged; with it each DTO becomes a map of just the listed properties, in the order requested.
+// Unknown names are ignored.
+public final class SparseFieldset {
+
+    private SparseFieldset() {
+    }
+
+    public static Object apply(Object body, String fields, ObjectMapper objectMapper) {
+        if (fields == null || fields.isBlank() || body == null) {
+            return body;
+        }
+        List<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (body instanceof List<?> list) {
+            return list.stream().map(item -> select(item, names, objectMapper)).collect(Collectors.toList());
+        }
+        return select(body, names, objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> select(Object dto, List<String> names, ObjectMapper objectMapper) {
+        Map<String, Object> all = objectMapper.convertValue(dto, Map.class);
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String name : names) {
+            if (all.containsKey(name)) {
+                selected.put(name, all.get(name));
+            }
+        }
+        return selected;
+    }
+}
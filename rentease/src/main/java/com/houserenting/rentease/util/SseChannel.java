@@ -0,0 +1,139 @@
+package com.houserenting.rentease.util;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Server-sent event subscribers grouped by key (a user, a chat). Connections are async servlet requests and hold
+// no thread while idle. Each subscriber has a bounded queue drained on a virtual thread, so publishing never
+// blocks on a slow client; one that falls a full queue behind is disconnected and is expected to reconnect
+// with Last-Event-ID. Events are queued as suppliers because an SseEventBuilder can only be sent once.
+public class SseChannel<K> {
+
+    private static final Supplier<SseEmitter.SseEventBuilder> HEARTBEAT = () -> SseEmitter.event().comment("heartbeat");
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<K, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public SseChannel(int bufferSize, long timeoutMs) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public Subscriber subscribe(K key) {
+        Subscriber subscriber = new Subscriber(key, new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber;
+    }
+
+    public void publish(K key, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (key == null) {
+            return;
+        }
+        Set<Subscriber> targets = subscribers.get(key);
+        if (targets != null) {
+            targets.forEach(s -> s.offer(event));
+        }
+    }
+
+    // Keeps idle connections from being closed by proxies and notices clients that went away
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.offer(HEARTBEAT)));
+    }
+
+    public int size() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public void close() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        sender.shutdown();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public final class Subscriber {
+        private final K key;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Supplier<SseEmitter.SseEventBuilder>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(K key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        public void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= bufferSize) {
+                    overflow = true;
+                } else {
+                    pending.add(event);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                close();
+            } else {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event.get());
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
@@ -1,39 +0,0 @@
-package com.rentease.model;
-
-import jakarta.persistence.*;
-import lombok.Data;
-import java.time.LocalDateTime;
-
-@Entity
-@Data
-public class Chat {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne
-    @JoinColumn(name = "property_id")
-    private Property property;
-
-    @ManyToOne
-    @JoinColumn(name = "tenant_id")
-    private User tenant;
-
-    @ManyToOne
-    @JoinColumn(name = "landlord_id")
-    private User landlord;
-
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-}
\ No newline at end of file
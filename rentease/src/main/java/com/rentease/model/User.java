@@ -9,7 +9,8 @@ import java.util.List;
 @Data
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     private String firstName;
@@ -27,10 +28,4 @@ public class User {
 
     @OneToMany(mappedBy = "user")
     private List<Favorite> favorites;
-
-    @OneToMany(mappedBy = "sender")
-    private List<Message> sentMessages;
-
-    @OneToMany(mappedBy = "receiver")
-    private List<Message> receivedMessages;
 }
\ No newline at end of file
@@ -2,3 +2,107 @@
 INSERT INTO users (id, firstname, lastname, email, phone, password, role, enabled)
 SELECT 8, 'Test', 'Landlord', 'landlord@test.com', '+1234567890', 'password123', 'LANDLORD', true
 WHERE NOT EXISTS (SELECT 1 FROM users WHERE id = 8);
+
+-- Ids moved from identity columns to pooled sequences (blocks of 50). Drop the old identity defaults and move
+-- each sequence past the highest existing id; never moves a sequence backwards, so it is safe on every start.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE property ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE favorite ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('property_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM property), (SELECT last_value FROM property_seq)));
+SELECT setval('booking_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM booking), (SELECT last_value FROM booking_seq)));
+SELECT setval('favorite_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM favorite), (SELECT last_value FROM favorite_seq)));
+
+-- No two approved bookings of a property may overlap; ranges are half-open [startDate, endDate). Approved
+-- bookings that already overlap are reported and the constraint is left out, so the application still starts;
+-- it is added on the first start after they are resolved.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+DO 'DECLARE
+    conflicts TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''booking_no_overlap'') THEN
+        SELECT string_agg(a.id || '' and '' || b.id, '', '') INTO conflicts FROM booking a JOIN booking b
+            ON a.property_id = b.property_id AND a.id < b.id
+            AND daterange(a.startDate, a.endDate, ''[)'') && daterange(b.startDate, b.endDate, ''[)'')
+            WHERE a.status = ''APPROVED'' AND b.status = ''APPROVED'';
+        IF conflicts IS NULL THEN
+            ALTER TABLE booking ADD CONSTRAINT booking_no_overlap EXCLUDE USING gist
+                (property_id WITH =, daterange(startDate, endDate, ''[)'') WITH &&) WHERE (status = ''APPROVED'');
+        ELSE
+            RAISE WARNING ''booking_no_overlap not added: approved bookings % overlap'', conflicts;
+        END IF;
+    END IF;
+END';
+
+-- A tenant holds at most one open (pending or approved) booking per property. Existing duplicates are reported
+-- and the index is left out until they are resolved, as with booking_no_overlap.
+DO 'DECLARE
+    duplicates TEXT;
+BEGIN
+    IF to_regclass(''booking_one_open_per_tenant'') IS NULL THEN
+        SELECT string_agg(''property '' || property_id || '' tenant '' || tenant_id, '', '') INTO duplicates
+            FROM (SELECT property_id, tenant_id FROM booking WHERE status IN (''PENDING'', ''APPROVED'')
+                GROUP BY property_id, tenant_id HAVING COUNT(*) > 1) open_bookings;
+        IF duplicates IS NULL THEN
+            CREATE UNIQUE INDEX booking_one_open_per_tenant ON booking (property_id, tenant_id)
+                WHERE status IN (''PENDING'', ''APPROVED'');
+        ELSE
+            RAISE WARNING ''booking_one_open_per_tenant not added: several open bookings for %'', duplicates;
+        END IF;
+    END IF;
+END';
+
+-- Hibernate generates a CHECK over the enum values when it creates booking.status and never widens it on update;
+-- recreate it so statuses added later (EXPIRED) can be stored
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''booking_status_check''
+            AND pg_get_constraintdef(oid) LIKE ''%EXPIRED%'') THEN
+        ALTER TABLE booking DROP CONSTRAINT IF EXISTS booking_status_check;
+        ALTER TABLE booking ADD CONSTRAINT booking_status_check CHECK (status IN
+            (''PENDING'', ''APPROVED'', ''REJECTED'', ''CANCELLED'', ''COMPLETED'', ''EXPIRED''));
+    END IF;
+END';
+
+-- Open requests only, so expiry and auto-rejection scans stay small however much history accumulates
+CREATE INDEX IF NOT EXISTS idx_booking_pending ON booking (createdAt, id) WHERE status = 'PENDING';
+
+-- Responses recorded per Idempotency-Key (hashed with caller, method and URI) with the hash of the request body
+-- they answered; rows past the TTL are purged hourly
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idem_key VARCHAR(64) PRIMARY KEY,
+    request_hash VARCHAR(64),
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    status INT,
+    content_type VARCHAR(255),
+    body BYTEA,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created ON idempotency_key (created_at);
+ALTER TABLE idempotency_key ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+
+-- Version and Last-Modified of the property catalog, bumped by every property write in the same transaction;
+-- listings answer conditional GETs from this one row
+CREATE TABLE IF NOT EXISTS property_catalog (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    modified_at TIMESTAMP NOT NULL DEFAULT now()
+);
+ALTER TABLE property_catalog ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE property_catalog ADD COLUMN IF NOT EXISTS modified_at TIMESTAMP NOT NULL DEFAULT now();
+ALTER TABLE property_catalog DROP COLUMN IF EXISTS deleted_at;
+INSERT INTO property_catalog (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
+
+-- Messages stored before Message.chatSeq existed are numbered per chat in id order, after the chat's last
+-- position, and the chat's counter is moved past them; the partial index keeps this a no-op once done
+CREATE INDEX IF NOT EXISTS idx_message_unsequenced ON message (chat_id) WHERE chatSeq IS NULL;
+WITH numbered AS (
+    UPDATE message m SET chatSeq = n.seq
+    FROM (SELECT x.id, COALESCE(c.messageSeq, 0) + ROW_NUMBER() OVER (PARTITION BY x.chat_id ORDER BY x.id) AS seq
+        FROM message x JOIN chat c ON c.id = x.chat_id WHERE x.chatSeq IS NULL) n
+    WHERE m.id = n.id
+    RETURNING m.chat_id, m.chatSeq
+)
+UPDATE chat c SET messageSeq = s.last_seq
+FROM (SELECT chat_id, MAX(chatSeq) AS last_seq FROM numbered GROUP BY chat_id) s
+WHERE c.id = s.chat_id;
@@ -0,0 +1,68 @@
+package com.houserenting.rentease;
+
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import jakarta.persistence.EntityManager;
+
+import java.util.UUID;
+
+// Minimal valid entities for tests that share one database. Emails are random, so concurrent threads and test
+// runs never collide on the unique constraint. The plain builders return unsaved entities for callers that
+// save through repositories or adjust fields first; the persist variants store them in the current transaction.
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(Role role) {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName(role.name());
+        user.setEmail("test-" + UUID.randomUUID() + "@test.com");
+        user.setPassword("password");
+        user.setRole(role);
+        return user;
+    }
+
+    // An approved listing owned by landlord
+    public static Property property(User landlord) {
+        Property property = new Property();
+        property.setTitle("Test property");
+        property.setCity("Kigali");
+        property.setPrice(300);
+        property.setStatus(PropertyStatus.APPROVED);
+        property.setLandlord(landlord);
+        return property;
+    }
+
+    public static Chat chat(Property property, User tenant) {
+        Chat chat = new Chat();
+        chat.setProperty(property);
+        chat.setTenant(tenant);
+        chat.setLandlord(property.getLandlord());
+        return chat;
+    }
+
+    public static User persistUser(EntityManager entityManager, Role role) {
+        User user = user(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    public static Property persistProperty(EntityManager entityManager, User landlord) {
+        Property property = property(landlord);
+        entityManager.persist(property);
+        return property;
+    }
+
+    // A chat about a new listing of landlord's, flushed so it can be used from SQL right away
+    public static Chat persistChat(EntityManager entityManager, User tenant, User landlord) {
+        Chat chat = chat(persistProperty(entityManager, landlord), tenant);
+        entityManager.persist(chat);
+        entityManager.flush();
+        return chat;
+    }
+}
@@ -0,0 +1,192 @@
+package com.houserenting.rentease.config;
+
+import com.houserenting.rentease.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(new InMemoryStore());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    // Stands in for the controller: reads the body the way it would and echoes what it saw
+    private final FilterChain chain = (request, response) -> {
+        int run = executions.incrementAndGet();
+        HttpServletRequest http = (HttpServletRequest) request;
+        long received = 0;
+        if (http.getContentType().startsWith("multipart/")) {
+            for (Part part : http.getParts()) {
+                received += part.getInputStream().readAllBytes().length;
+            }
+        } else {
+            received = http.getInputStream().readAllBytes().length;
+        }
+        response.setContentType("text/plain");
+        response.getWriter().write("run " + run + ", " + received + " bytes");
+        ((HttpServletResponse) response).setStatus(HttpStatus.CREATED.value());
+    };
+
+    @Test
+    void repeatWithSameBodyReplaysTheRecordedResponse() throws Exception {
+        MockHttpServletResponse first = post(json("/api/bookings", "k1", "{\"propertyId\":1}"));
+        MockHttpServletResponse second = post(json("/api/bookings", "k1", "{\"propertyId\":1}"));
+
+        assertEquals(201, first.getStatus());
+        assertEquals("run 1, 16 bytes", first.getContentAsString());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, second.getStatus());
+        assertEquals("run 1, 16 bytes", second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        post(json("/api/bookings", "k1", "{\"propertyId\":1}"));
+        MockHttpServletResponse reused = post(json("/api/bookings", "k1", "{\"propertyId\":2}"));
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void multipartRequestsAreFingerprintedByTheirParts() throws Exception {
+        MockHttpServletResponse first = post(multipart("k1", new byte[] { 1, 2, 3 }));
+        MockHttpServletResponse repeat = post(multipart("k1", new byte[] { 1, 2, 3 }));
+        MockHttpServletResponse otherImage = post(multipart("k1", new byte[] { 1, 2, 4 }));
+
+        // The controller still reads every part after the filter fingerprinted them
+        assertEquals("run 1, 30 bytes", first.getContentAsString());
+        assertEquals("run 1, 30 bytes", repeat.getContentAsString());
+        assertEquals("true", repeat.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(422, otherImage.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void bulkImportIsNotFiltered() throws Exception {
+        post(json("/api/properties/import", "k1", "{\"title\":\"A\"}"));
+        MockHttpServletResponse second = post(json("/api/properties/import", "k1", "{\"title\":\"A\"}"));
+
+        assertNull(second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void bufferedBodyNotifiesReadListener() throws Exception {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        FilterChain asyncReader = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    ((HttpServletResponse) response).setStatus(HttpStatus.CREATED.value());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    ((HttpServletResponse) response).setStatus(500);
+                }
+            });
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(json("/api/bookings", "k1", "{\"propertyId\":1}"), response, asyncReader);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"propertyId\":1}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse post(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest json(String uri, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest multipart(String key, byte[] image) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/properties");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("multipart/form-data; boundary=test");
+        MockPart property = new MockPart("request", "{\"title\":\"Flat\",\"city\":\"K\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        property.getHeaders().set("Content-Type", "application/json");
+        request.addPart(property);
+        request.addPart(new MockPart("images", "a.jpg", image));
+        return request;
+    }
+
+    // The database-backed store's contract, kept in memory
+    private static class InMemoryStore extends IdempotencyStore {
+        private final Map<String, String> claims = new HashMap<>();
+        private final Map<String, StoredResponse> responses = new HashMap<>();
+
+        InMemoryStore() {
+            super(null, 100, 24);
+        }
+
+        @Override
+        public Optional<StoredResponse> find(String key) {
+            return Optional.ofNullable(responses.get(key));
+        }
+
+        @Override
+        public boolean claim(String key, String requestHash) {
+            if (claims.containsKey(key) || responses.containsKey(key)) {
+                return false;
+            }
+            claims.put(key, requestHash);
+            return true;
+        }
+
+        @Override
+        public Optional<String> pendingRequestHash(String key) {
+            return Optional.ofNullable(claims.get(key));
+        }
+
+        @Override
+        public void complete(String key, String requestHash, int status, String contentType, byte[] body) {
+            claims.remove(key);
+            responses.put(key, new StoredResponse(requestHash, status, contentType, body,
+                    System.currentTimeMillis()));
+        }
+
+        @Override
+        public void release(String key) {
+            claims.remove(key);
+        }
+    }
+}
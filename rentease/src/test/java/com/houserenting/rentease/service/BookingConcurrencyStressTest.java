@@ -0,0 +1,144 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.BookingDTO;
+import com.houserenting.rentease.model.Booking;
+import com.houserenting.rentease.model.BookingStatus;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.BookingRepository;
+import com.houserenting.rentease.repository.PropertyRepository;
+import com.houserenting.rentease.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.houserenting.rentease.TestFixtures.property;
+import static com.houserenting.rentease.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Thousands of concurrent create-and-approve requests over a few properties with heavily overlapping dates.
+// Asserts that no two approved bookings of a property overlap and no tenant holds two open bookings of one
+// property, and prints throughput. Commits real rows, removed afterwards.
+// Run with: mvn test -Dtest=BookingConcurrencyStressTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingConcurrencyStressTest.class);
+
+    private static final int PROPERTIES = 8;
+    private static final int TENANTS = 100;
+    private static final int REQUESTS = 4000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Property> properties = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Property property : properties) {
+            bookingRepository.deleteAll(bookingRepository.findByPropertyId(property.getId()));
+        }
+        propertyRepository.deleteAll(properties);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws InterruptedException {
+        User landlord = saveUser(Role.LANDLORD);
+        for (int i = 0; i < PROPERTIES; i++) {
+            Property property = property(landlord);
+            property.setTitle("Stress " + i);
+            properties.add(propertyRepository.save(property));
+        }
+        List<User> tenants = new ArrayList<>();
+        for (int i = 0; i < TENANTS; i++) {
+            tenants.add(saveUser(Role.TENANT));
+        }
+
+        LocalDate base = LocalDate.now().plusDays(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long propertyId = properties.get(random.nextInt(PROPERTIES)).getId();
+                Long tenantId = tenants.get(random.nextInt(TENANTS)).getId();
+                try {
+                    BookingDTO booking = bookingService.createBooking(propertyId, tenantId,
+                            base.plusDays(random.nextInt(90)));
+                    bookingService.updateBookingStatus(booking.getId(), BookingStatus.APPROVED);
+                    approved.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+
+        log.info("{} booking requests on {} threads in {} ms ({} req/s): {} approved, {} refused", REQUESTS,
+                THREADS, elapsed / 1_000_000, Math.round(REQUESTS * 1e9 / elapsed), approved.get(), rejected.get());
+        assertEquals(REQUESTS, approved.get() + rejected.get());
+
+        for (Property property : properties) {
+            List<Booking> bookings = bookingRepository.findByPropertyId(property.getId());
+            List<Booking> approvedBookings = bookings.stream()
+                    .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                    .toList();
+            for (int a = 0; a < approvedBookings.size(); a++) {
+                for (int b = a + 1; b < approvedBookings.size(); b++) {
+                    Booking first = approvedBookings.get(a);
+                    Booking second = approvedBookings.get(b);
+                    assertTrue(!first.getStartDate().isBefore(second.getEndDate())
+                            || !second.getStartDate().isBefore(first.getEndDate()),
+                            "Approved bookings " + first.getId() + " and " + second.getId() + " overlap");
+                }
+            }
+            Set<Long> openTenants = new HashSet<>();
+            long open = bookings.stream()
+                    .filter(b -> b.getStatus() == BookingStatus.PENDING || b.getStatus() == BookingStatus.APPROVED)
+                    .peek(b -> openTenants.add(b.getTenant().getId()))
+                    .count();
+            assertEquals(open, openTenants.size());
+        }
+    }
+
+    private User saveUser(Role role) {
+        User saved = userRepository.save(user(role));
+        users.add(saved);
+        return saved;
+    }
+}
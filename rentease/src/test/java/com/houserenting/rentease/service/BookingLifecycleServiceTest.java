@@ -0,0 +1,75 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.model.Booking;
+import com.houserenting.rentease.model.BookingStatus;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static com.houserenting.rentease.TestFixtures.persistProperty;
+import static com.houserenting.rentease.TestFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BookingLifecycleServiceTest {
+
+    @Autowired
+    private BookingLifecycleService lifecycleService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void pendingBookingPastItsStartDateExpires() {
+        Booking stale = persistBooking(LocalDate.now().minusDays(2), BookingStatus.PENDING);
+        Booking upcoming = persistBooking(LocalDate.now().plusDays(10), BookingStatus.PENDING);
+        entityManager.flush();
+
+        assertTrue(lifecycleService.expireStalePending() >= 1);
+
+        entityManager.clear();
+        assertEquals(BookingStatus.EXPIRED, entityManager.find(Booking.class, stale.getId()).getStatus());
+        assertEquals(BookingStatus.PENDING, entityManager.find(Booking.class, upcoming.getId()).getStatus());
+    }
+
+    @Test
+    void expiredBookingCannotBeApproved() {
+        Booking stale = persistBooking(LocalDate.now().minusDays(2), BookingStatus.PENDING);
+        entityManager.flush();
+        lifecycleService.expireStalePending();
+        entityManager.clear();
+
+        assertThrows(RuntimeException.class,
+                () -> bookingService.updateBookingStatus(stale.getId(), BookingStatus.APPROVED));
+        entityManager.clear();
+        assertEquals(BookingStatus.EXPIRED, entityManager.find(Booking.class, stale.getId()).getStatus());
+    }
+
+    private Booking persistBooking(LocalDate startDate, BookingStatus status) {
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        User tenant = persistUser(entityManager, Role.TENANT);
+        Property property = persistProperty(entityManager, landlord);
+
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setTenant(tenant);
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plusMonths(1));
+        booking.setStatus(status);
+        entityManager.persist(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,220 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.ChatMessageDTO;
+import com.houserenting.rentease.dto.ChatMessagePage;
+import com.houserenting.rentease.dto.ChatSummaryDTO;
+import com.houserenting.rentease.dto.ChatSummaryPage;
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Message;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.ChatUnreadRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.houserenting.rentease.TestFixtures.persistChat;
+import static com.houserenting.rentease.TestFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ChatServiceTest {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatMessageStream chatMessageStream;
+
+    @Autowired
+    private ChatUnreadRepository unreadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void sendMessageStoresMessageBetweenParticipants() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+
+        Message sent = chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Is it available?");
+        entityManager.flush();
+        entityManager.clear();
+
+        Message stored = entityManager.find(Message.class, sent.getId());
+        assertEquals(chat.getId(), stored.getChat().getId());
+        assertEquals(tenant.getId(), stored.getSender().getId());
+        assertEquals(landlord.getId(), stored.getReceiver().getId());
+        assertEquals("Is it available?", stored.getContent());
+    }
+
+    @Test
+    void onlyParticipantsMaySubscribe() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        User outsider = persistUser(entityManager, Role.TENANT);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+
+        assertNotNull(chatMessageStream.subscribe(chat.getId(), tenant.getId(), null));
+        assertNotNull(chatMessageStream.subscribe(chat.getId(), landlord.getId(), null));
+        assertThrows(RuntimeException.class, () -> chatMessageStream.subscribe(chat.getId(), outsider.getId(), null));
+    }
+
+    @Test
+    void historyPagesStopAtBothEnds() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Message " + i).getId());
+        }
+
+        ChatMessagePage latest = chatService.getMessages(chat.getId(), null, null, 2);
+        assertEquals(ids.subList(3, 5), idsOf(latest));
+        assertTrue(latest.isHasMore());
+
+        ChatMessagePage older = chatService.getMessages(chat.getId(), ids.get(3), null, 2);
+        assertEquals(ids.subList(1, 3), idsOf(older));
+        assertTrue(older.isHasMore());
+
+        ChatMessagePage oldest = chatService.getMessages(chat.getId(), ids.get(1), null, 2);
+        assertEquals(ids.subList(0, 1), idsOf(oldest));
+        assertFalse(oldest.isHasMore());
+
+        ChatMessagePage newer = chatService.getMessages(chat.getId(), null, ids.get(2), 2);
+        assertEquals(ids.subList(3, 5), idsOf(newer));
+        assertFalse(newer.isHasMore());
+
+        ChatMessagePage caughtUp = chatService.getMessages(chat.getId(), null, ids.get(4), 2);
+        assertTrue(caughtUp.getMessages().isEmpty());
+        assertFalse(caughtUp.isHasMore());
+
+        ChatMessagePage between = chatService.getMessages(chat.getId(), ids.get(0), ids.get(4), 10);
+        assertEquals(ids.subList(1, 4), idsOf(between));
+        assertFalse(between.isHasMore());
+    }
+
+    @Test
+    void catchUpFollowsCommitOrderNotIds() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+        Long seen = chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Seen").getId();
+        // Another node's id block was lower: this message has a smaller id but commits after the one seen
+        Message late = chatService.sendMessage(chat.getId(), landlord.getId(), tenant.getId(), "Late");
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE message SET id = ?1 WHERE id = ?2")
+                .setParameter(1, seen - 1000).setParameter(2, late.getId()).executeUpdate();
+        entityManager.clear();
+
+        assertEquals(List.of(seen - 1000), idsOf(chatService.getMessages(chat.getId(), null, seen, 10)));
+        assertEquals(List.of(seen, seen - 1000), idsOf(chatService.getMessages(chat.getId(), null, null, 10)));
+    }
+
+    @Test
+    void unreadCountersFollowSendsAndReads() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "First");
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Second");
+        chatService.sendMessage(chat.getId(), landlord.getId(), tenant.getId(), "Reply");
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Third");
+
+        assertEquals(3L, unreadRepository.findUnread(chat.getId(), landlord.getId()).orElse(0L).longValue());
+        assertEquals(1L, unreadRepository.findUnread(chat.getId(), tenant.getId()).orElse(0L).longValue());
+
+        assertEquals(3, chatService.markRead(chat.getId(), landlord.getId()));
+        assertEquals(0L, unreadRepository.findUnread(chat.getId(), landlord.getId()).orElse(0L).longValue());
+        assertEquals(1L, unreadRepository.findUnread(chat.getId(), tenant.getId()).orElse(0L).longValue());
+
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Fourth");
+        assertEquals(1L, unreadRepository.findUnread(chat.getId(), landlord.getId()).orElse(0L).longValue());
+    }
+
+    @Test
+    void readKeepsCountingMessagesItDidNotCover() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "First");
+        chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Second");
+        // Counted by a sender whose message row the read's UPDATE does not see yet
+        unreadRepository.increment(chat.getId(), landlord.getId());
+
+        assertEquals(2, chatService.markRead(chat.getId(), landlord.getId()));
+        assertEquals(1L, unreadRepository.findUnread(chat.getId(), landlord.getId()).orElse(0L).longValue());
+    }
+
+    @Test
+    void chatListFollowsLatestMessage() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat first = persistChat(entityManager, tenant, landlord);
+        Chat second = persistChat(entityManager, tenant, landlord);
+        Chat third = persistChat(entityManager, tenant, landlord);
+
+        chatService.sendMessage(first.getId(), tenant.getId(), landlord.getId(), "Hello from the first chat");
+        chatService.sendMessage(second.getId(), tenant.getId(), landlord.getId(), "Hello from the second chat");
+        Message latest = chatService.sendMessage(first.getId(), landlord.getId(), tenant.getId(), "Latest reply");
+
+        ChatSummaryPage page = chatService.getChats(landlord.getId(), true, null, 2);
+        assertEquals(List.of(first.getId(), second.getId()), chatIdsOf(page));
+        assertNotNull(page.getNextCursor());
+        ChatSummaryDTO top = page.getChats().get(0);
+        assertEquals(latest.getId(), top.getLastMessageId());
+        assertEquals("Latest reply", top.getLastMessageSnippet());
+        assertEquals(landlord.getId(), top.getLastMessageSenderId());
+
+        // A chat without messages sorts by its creation time, after the active ones
+        ChatSummaryPage rest = chatService.getChats(landlord.getId(), true, page.getNextCursor(), 2);
+        assertEquals(List.of(third.getId()), chatIdsOf(rest));
+        assertNull(rest.getNextCursor());
+        assertNull(rest.getChats().get(0).getLastMessageId());
+
+        ChatSummaryPage asTenant = chatService.getChats(tenant.getId(), false, null, 10);
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()), chatIdsOf(asTenant));
+    }
+
+    @Test
+    void previewIsNotPinnedByAnOlderMessageWithAHigherId() {
+        User tenant = persistUser(entityManager, Role.TENANT);
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        Chat chat = persistChat(entityManager, tenant, landlord);
+        // An earlier message whose id came from a later pooled block
+        Message older = chatService.sendMessage(chat.getId(), tenant.getId(), landlord.getId(), "Older");
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE chat SET lastMessageId = ?1 WHERE id = ?2")
+                .setParameter(1, older.getId() + 1_000_000).setParameter(2, chat.getId()).executeUpdate();
+        entityManager.clear();
+
+        Message newer = chatService.sendMessage(chat.getId(), landlord.getId(), tenant.getId(), "Newer");
+
+        ChatSummaryDTO summary = chatService.getChats(tenant.getId(), false, null, 10).getChats().get(0);
+        assertEquals(newer.getId(), summary.getLastMessageId());
+        assertEquals("Newer", summary.getLastMessageSnippet());
+    }
+
+    private static List<Long> idsOf(ChatMessagePage page) {
+        return page.getMessages().stream().map(ChatMessageDTO::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> chatIdsOf(ChatSummaryPage page) {
+        return page.getChats().stream().map(ChatSummaryDTO::getId).collect(Collectors.toList());
+    }
+}
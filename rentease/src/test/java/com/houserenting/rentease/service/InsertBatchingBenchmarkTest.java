@@ -0,0 +1,174 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.TestFixtures;
+import com.houserenting.rentease.model.Chat;
+import com.houserenting.rentease.model.Message;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.PropertyStatus;
+import com.houserenting.rentease.model.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.houserenting.rentease.TestFixtures.persistUser;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Insert throughput of database-assigned ids against sequence ids with JDBC batching, for properties with their
+// element collections and for chat messages. The identity side is what IDENTITY columns force: each row is
+// inserted on its own and its id read back (INSERT ... RETURNING id) before the next, with only the collection
+// rows batched. The sequence side persists the entities through JPA with the configured batch size.
+// Every run is rolled back. Run with: mvn test -Dtest=InsertBatchingBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsertBatchingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+
+    private static final int ROWS = 2000;
+    private static final int ROUNDS = 3;
+
+    private static final String INSERT_PROPERTY_RETURNING_ID = "INSERT INTO property (id, title, city, price, "
+            + "status, landlord_id, bedrooms, bathrooms, area, yearBuilt, parkingSpaces, deposit, minLeaseMonths, "
+            + "maxOccupants, version, updatedAt) "
+            + "VALUES (nextval('property_seq'), ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0, 0, now()) RETURNING id";
+    private static final String INSERT_AMENITY =
+            "INSERT INTO property_amenities (property_id, amenities) VALUES (?, ?)";
+    private static final String INSERT_PHOTO =
+            "INSERT INTO property_additional_photos (property_id, photo_url) VALUES (?, ?)";
+    private static final String INSERT_UTILITY =
+            "INSERT INTO property_utilitiesincluded (property_id, utilitiesIncluded) VALUES (?, ?)";
+    private static final String INSERT_MESSAGE_RETURNING_ID = "INSERT INTO message (id, chat_id, content, sender_id, "
+            + "receiver_id, timestamp, isRead) VALUES (nextval('message_seq'), ?, ?, ?, ?, now(), false) RETURNING id";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sequenceBatchingOutperformsIdentityForProperties() {
+        long[] times = compare(this::insertPropertiesReturningIds, this::persistProperties);
+        log.info("Inserted {} properties with collections: identity-style {} ms ({} rows/s), "
+                + "sequence ids batched {} ms ({} rows/s)", ROWS, times[0] / 1_000_000, rate(times[0]),
+                times[1] / 1_000_000, rate(times[1]));
+        assertTrue(times[1] < times[0], "batched sequence inserts were not faster than identity-style inserts");
+    }
+
+    @Test
+    void sequenceBatchingOutperformsIdentityForMessages() {
+        long[] times = compare(this::insertMessagesReturningIds, this::persistMessages);
+        log.info("Inserted {} chat messages: identity-style {} ms ({} rows/s), sequence ids batched {} ms "
+                + "({} rows/s)", ROWS, times[0] / 1_000_000, rate(times[0]), times[1] / 1_000_000, rate(times[1]));
+        assertTrue(times[1] < times[0], "batched sequence inserts were not faster than identity-style inserts");
+    }
+
+    // Best of ROUNDS for each side after one warm-up run of both
+    private long[] compare(Function<Chat, Long> identity, Function<Chat, Long> sequence) {
+        measure(identity);
+        measure(sequence);
+        long identityBest = Long.MAX_VALUE;
+        long sequenceBest = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            identityBest = Math.min(identityBest, measure(identity));
+            sequenceBest = Math.min(sequenceBest, measure(sequence));
+        }
+        return new long[] { identityBest, sequenceBest };
+    }
+
+    // Runs the insert in a transaction that is rolled back, against a fresh chat and its participants
+    private long measure(Function<Chat, Long> insert) {
+        return transactionTemplate.execute(status -> {
+            Chat chat = persistChat();
+            long took = insert.apply(chat);
+            entityManager.clear();
+            status.setRollbackOnly();
+            return took;
+        });
+    }
+
+    private long insertPropertiesReturningIds(Chat chat) {
+        Long landlordId = chat.getLandlord().getId();
+        long start = System.nanoTime();
+        List<Object[]> amenities = new ArrayList<>();
+        List<Object[]> photos = new ArrayList<>();
+        List<Object[]> utilities = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Long id = jdbcTemplate.queryForObject(INSERT_PROPERTY_RETURNING_ID, Long.class, "Benchmark " + i,
+                    "Kigali", 100 + i, PropertyStatus.PENDING.name(), landlordId);
+            amenities.add(new Object[] { id, "wifi" });
+            amenities.add(new Object[] { id, "parking" });
+            photos.add(new Object[] { id, "a.jpg" });
+            utilities.add(new Object[] { id, "water" });
+        }
+        jdbcTemplate.batchUpdate(INSERT_AMENITY, amenities);
+        jdbcTemplate.batchUpdate(INSERT_PHOTO, photos);
+        jdbcTemplate.batchUpdate(INSERT_UTILITY, utilities);
+        return System.nanoTime() - start;
+    }
+
+    private long persistProperties(Chat chat) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Property property = new Property();
+            property.setTitle("Benchmark " + i);
+            property.setCity("Kigali");
+            property.setPrice(100 + i);
+            property.setStatus(PropertyStatus.PENDING);
+            property.setLandlord(chat.getLandlord());
+            property.setAmenities(new ArrayList<>(List.of("wifi", "parking")));
+            property.setAdditionalPhotos(new ArrayList<>(List.of("a.jpg")));
+            property.setUtilitiesIncluded(new ArrayList<>(List.of("water")));
+            entityManager.persist(property);
+        }
+        entityManager.flush();
+        return System.nanoTime() - start;
+    }
+
+    private long insertMessagesReturningIds(Chat chat) {
+        Long tenantId = chat.getTenant().getId();
+        Long landlordId = chat.getLandlord().getId();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            jdbcTemplate.queryForObject(INSERT_MESSAGE_RETURNING_ID, Long.class, chat.getId(), "Benchmark " + i,
+                    tenantId, landlordId);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long persistMessages(Chat chat) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Message message = new Message();
+            message.setChat(chat);
+            message.setContent("Benchmark " + i);
+            message.setSender(chat.getTenant());
+            message.setReceiver(chat.getLandlord());
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+        return System.nanoTime() - start;
+    }
+
+    private Chat persistChat() {
+        return TestFixtures.persistChat(entityManager, persistUser(entityManager, Role.TENANT),
+                persistUser(entityManager, Role.LANDLORD));
+    }
+
+    private static long rate(long nanos) {
+        return Math.round(ROWS * 1e9 / nanos);
+    }
+}
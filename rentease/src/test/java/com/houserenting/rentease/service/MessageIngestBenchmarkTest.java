@@ -0,0 +1,170 @@
+package com.houserenting.rentease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.repository.ChatRepository;
+import com.houserenting.rentease.repository.PropertyRepository;
+import com.houserenting.rentease.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.houserenting.rentease.TestFixtures.chat;
+import static com.houserenting.rentease.TestFixtures.property;
+import static com.houserenting.rentease.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Chat message throughput from many concurrent senders: ChatService.sendMessage, one transaction per message,
+// against MessageIngestPipeline, measured both to acknowledgement and until every message is in the table.
+// The pipeline is built by hand so it runs whatever chat.ingest.enabled says. Commits real rows, removed
+// afterwards. Run with: mvn test -Dtest=MessageIngestBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageIngestBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestBenchmarkTest.class);
+
+    private static final int MESSAGES = 20000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    private Long chatId;
+    private Long tenantId;
+    private Long landlordId;
+    private Long propertyId;
+    private Path logDir;
+
+    @BeforeEach
+    void createChat() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            User tenant = userRepository.save(user(Role.TENANT));
+            User landlord = userRepository.save(user(Role.LANDLORD));
+            Property property = propertyRepository.save(property(landlord));
+            chatId = chatRepository.save(chat(property, tenant)).getId();
+            tenantId = tenant.getId();
+            landlordId = landlord.getId();
+            propertyId = property.getId();
+        });
+        logDir = Files.createTempDirectory("chat-ingest-benchmark");
+    }
+
+    @AfterEach
+    void removeChat() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM message WHERE chat_id = ?", chatId);
+            jdbcTemplate.update("DELETE FROM chat_unread WHERE chat_id = ?", chatId);
+            chatRepository.deleteById(chatId);
+            propertyRepository.deleteById(propertyId);
+            userRepository.deleteAllById(List.of(tenantId, landlordId));
+        });
+        try (Stream<Path> files = Files.walk(logDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    void pipelineOutpacesPerMessageTransactions() throws Exception {
+        long direct = run(this::sendDirect);
+
+        MessageIngestPipeline pipeline = new MessageIngestPipeline(jdbcTemplate, transactionTemplate,
+                eventPublisher, objectMapper, true, logDir.toString(), 500, 50, 64L * 1024 * 1024, 100_000);
+        pipeline.start();
+        long start = System.nanoTime();
+        long acked = run(i -> pipeline.submit(chatId, i % 2 == 0 ? tenantId : landlordId,
+                i % 2 == 0 ? landlordId : tenantId, "Benchmark message " + i));
+        while (pipeline.backlog() > 0) {
+            Thread.sleep(5);
+        }
+        long stored = System.nanoTime() - start;
+        pipeline.stop();
+
+        log.info("{} chat messages on {} threads: per-message transactions {} ms ({} msg/s), pipeline acknowledged "
+                + "in {} ms ({} msg/s), stored in {} ms ({} msg/s)", MESSAGES, THREADS, direct / 1_000_000,
+                rate(direct), acked / 1_000_000, rate(acked), stored / 1_000_000, rate(stored));
+
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message WHERE chat_id = ?", Long.class,
+                chatId);
+        assertEquals(2L * MESSAGES, count.longValue());
+        assertTrue(stored < direct);
+    }
+
+    private void sendDirect(int i) {
+        long sender = i % 2 == 0 ? tenantId : landlordId;
+        long receiver = i % 2 == 0 ? landlordId : tenantId;
+        chatService.sendMessage(chatId, sender, receiver, "Benchmark message " + i);
+    }
+
+    private static long rate(long nanos) {
+        return Math.round(MESSAGES * 1e9 / nanos);
+    }
+
+    private interface Sender {
+        void send(int i) throws Exception;
+    }
+
+    // Sends MESSAGES messages from THREADS threads and returns the elapsed nanoseconds
+    private long run(Sender sender) throws InterruptedException {
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            int n = i;
+            executor.submit(() -> {
+                try {
+                    sender.send(n);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+        assertEquals(0, failed.get());
+        return elapsed;
+    }
+}
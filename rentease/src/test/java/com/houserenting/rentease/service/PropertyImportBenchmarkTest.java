@@ -0,0 +1,158 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyImportResult;
+import com.houserenting.rentease.dto.PropertyRequest;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static com.houserenting.rentease.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Bulk import of ROWS properties as NDJSON and as CSV, against creating properties one request at a time
+// through PropertyService for a sample of SAMPLE rows. Every INVALID_EVERY-th row is invalid and must be reported
+// without failing its chunk. Commits real rows, removed afterwards.
+// Run with: mvn test -Dtest=PropertyImportBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PropertyImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyImportBenchmarkTest.class);
+
+    private static final int ROWS = 100_000;
+    private static final int SAMPLE = 2000;
+    private static final int INVALID_EVERY = 1000;
+
+    @Autowired
+    private PropertyImportService importService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long landlordId;
+
+    @BeforeEach
+    void createLandlord() {
+        landlordId = userRepository.save(user(Role.LANDLORD)).getId();
+    }
+
+    @AfterEach
+    void removeProperties() {
+        transactionTemplate.executeWithoutResult(status -> {
+            String owned = "SELECT id FROM property WHERE landlord_id = ?";
+            jdbcTemplate.update("DELETE FROM property_amenities WHERE property_id IN (" + owned + ")", landlordId);
+            jdbcTemplate.update("DELETE FROM property_utilitiesincluded WHERE property_id IN (" + owned + ")",
+                    landlordId);
+            jdbcTemplate.update("DELETE FROM property_additional_photos WHERE property_id IN (" + owned + ")",
+                    landlordId);
+            jdbcTemplate.update("DELETE FROM property WHERE landlord_id = ?", landlordId);
+            userRepository.deleteById(landlordId);
+        });
+    }
+
+    @Test
+    void bulkImportOutpacesOneRequestPerProperty() {
+        long single = System.nanoTime();
+        for (int i = 0; i < SAMPLE; i++) {
+            propertyService.createProperty(request(i), List.of(), landlordId);
+        }
+        single = System.nanoTime() - single;
+
+        long ndjson = importRows(false, this::jsonRow);
+        long csv = importRows(true, this::csvRow);
+
+        log.info("Created {} properties one request at a time in {} ms ({} rows/s); imported {} as NDJSON in {} ms "
+                + "({} rows/s) and as CSV in {} ms ({} rows/s)", SAMPLE, single / 1_000_000, rate(SAMPLE, single),
+                ROWS, ndjson / 1_000_000, rate(ROWS, ndjson), csv / 1_000_000, rate(ROWS, csv));
+
+        int valid = ROWS - ROWS / INVALID_EVERY;
+        Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM property WHERE landlord_id = ?", Long.class,
+                landlordId);
+        assertEquals(SAMPLE + 2L * valid, stored.longValue());
+        assertTrue(rate(ROWS, ndjson) > rate(SAMPLE, single), "NDJSON import was not faster than single creates");
+        assertTrue(rate(ROWS, csv) > rate(SAMPLE, single), "CSV import was not faster than single creates");
+    }
+
+    // Imports ROWS generated rows and returns the elapsed nanoseconds
+    private long importRows(boolean csv, IntFunction<String> row) {
+        StringBuilder body = new StringBuilder(ROWS * 160);
+        if (csv) {
+            body.append("title,type,city,district,bedrooms,bathrooms,area,price,deposit,amenities,utilitiesIncluded\n");
+        }
+        for (int i = 0; i < ROWS; i++) {
+            body.append(row.apply(i)).append('\n');
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        PropertyImportResult result = importService.importProperties(new ByteArrayInputStream(bytes), csv,
+                landlordId);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(ROWS / INVALID_EVERY, result.getFailed());
+        assertEquals(ROWS - ROWS / INVALID_EVERY, result.getImported());
+        return elapsed;
+    }
+
+    private String jsonRow(int i) {
+        return String.format("{\"title\":\"Import %d\",\"type\":\"apartment\",\"city\":\"Kigali\",\"district\":"
+                + "\"Gasabo\",\"bedrooms\":%d,\"bathrooms\":1,\"area\":80,\"price\":%d,\"deposit\":500,"
+                + "\"amenities\":[\"wifi\",\"parking\"],\"utilitiesIncluded\":[\"water\"]}",
+                i, i % 5, price(i));
+    }
+
+    private String csvRow(int i) {
+        return String.format("Import %d,apartment,Kigali,Gasabo,%d,1,80,%d,500,wifi;parking,water", i, i % 5,
+                price(i));
+    }
+
+    // Zero, and so rejected, for every INVALID_EVERY-th row
+    private static int price(int i) {
+        return i % INVALID_EVERY == 0 ? 0 : 200 + i % 1800;
+    }
+
+    private static PropertyRequest request(int i) {
+        PropertyRequest request = new PropertyRequest();
+        request.setTitle("Single " + i);
+        request.setType("apartment");
+        request.setCity("Kigali");
+        request.setDistrict("Gasabo");
+        request.setBedrooms(i % 5);
+        request.setBathrooms(1);
+        request.setArea(80);
+        request.setPrice(200 + i % 1800);
+        request.setDeposit(500);
+        request.setAmenities(new ArrayList<>(List.of("wifi", "parking")));
+        request.setUtilitiesIncluded(new ArrayList<>(List.of("water")));
+        return request;
+    }
+
+    private static long rate(int rows, long nanos) {
+        return Math.round(rows * 1e9 / nanos);
+    }
+}
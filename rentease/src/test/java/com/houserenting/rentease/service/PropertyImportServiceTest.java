@@ -0,0 +1,107 @@
+package com.houserenting.rentease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserenting.rentease.dto.PropertyRequest;
+import com.houserenting.rentease.model.Property;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PropertyImportServiceTest {
+
+    private final PropertyImportService importService = new PropertyImportService(null, null, null, null,
+            new ObjectMapper().findAndRegisterModules(), null);
+
+    @Test
+    void csvFieldsKeepQuotedCommasAndDoubledQuotes() {
+        assertArrayEquals(new String[] { "Flat", "Main St, 4", "a \"quiet\" street", "" },
+                PropertyImportService.parseCsvLine("Flat,\"Main St, 4\",\"a \"\"quiet\"\" street\","));
+        assertArrayEquals(new String[] { "", "" }, PropertyImportService.parseCsvLine(","));
+        assertArrayEquals(new String[] { "one" }, PropertyImportService.parseCsvLine("one"));
+    }
+
+    @Test
+    void csvRowsMapByHeaderWithListColumns() {
+        String[] header = PropertyImportService.parseCsvLine(
+                "title,city,price,bedrooms,availableFrom,amenities,utilitiesIncluded,district");
+        PropertyRequest request = importService.fromCsv(header, PropertyImportService.parseCsvLine(
+                "Garden flat, Kigali ,450.5,2,2026-11-01,wifi; parking,water,"));
+
+        assertEquals("Garden flat", request.getTitle());
+        assertEquals("Kigali", request.getCity());
+        assertEquals(450.5, request.getPrice());
+        assertEquals(2, request.getBedrooms());
+        assertEquals(LocalDate.of(2026, 11, 1), request.getAvailableFrom());
+        assertEquals(List.of("wifi", "parking"), request.getAmenities());
+        assertEquals(List.of("water"), request.getUtilitiesIncluded());
+        assertNull(request.getDistrict(), "empty cells are left unset");
+    }
+
+    @Test
+    void csvRowsWiderThanTheHeaderOrWithBadValuesAreRejected() {
+        String[] header = { "title", "price" };
+        assertThrows(RuntimeException.class,
+                () -> importService.fromCsv(header, new String[] { "Flat", "300", "extra" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.fromCsv(header, new String[] { "Flat", "cheap" }));
+    }
+
+    @Test
+    void validationNamesTheFirstProblem() {
+        assertDoesNotThrow(() -> PropertyImportService.validate(request("Flat", "Kigali", 300, 1)));
+
+        assertEquals("title is required", invalid(request(" ", "Kigali", 300, 1)));
+        assertEquals("city is required", invalid(request("Flat", null, 300, 1)));
+        assertEquals("price must be positive", invalid(request("Flat", "Kigali", 0, 1)));
+        assertEquals("bedrooms and bathrooms cannot be negative", invalid(request("Flat", "Kigali", 300, -1)));
+    }
+
+    @Test
+    void reservedIdsFillWholeBlocksInOrder() {
+        int block = Property.ID_ALLOCATION_SIZE;
+        assertEquals(1, PropertyImportService.blocksFor(1));
+        assertEquals(1, PropertyImportService.blocksFor(block));
+        assertEquals(2, PropertyImportService.blocksFor(block + 1));
+        assertEquals(1000 / block, PropertyImportService.blocksFor(1000));
+
+        // Blocks need not be adjacent: another writer may have taken the one in between
+        List<Long> ids = new ArrayList<>();
+        PropertyImportService.addIds(ids, List.of((long) block, 3L * block), block + 10);
+        List<Long> expected = new ArrayList<>(LongStream.rangeClosed(1, block).boxed().toList());
+        expected.addAll(LongStream.rangeClosed(2L * block + 1, 2L * block + 10).boxed().toList());
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void firstBlockOfAFreshSequenceHoldsOnlyIdOne() {
+        int block = Property.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>();
+        PropertyImportService.addIds(ids, List.of(1L), 3);
+        assertEquals(List.of(1L), ids, "a second round trip is needed");
+
+        PropertyImportService.addIds(ids, List.of(1L + block), 3);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+    }
+
+    private static String invalid(PropertyRequest request) {
+        return assertThrows(RuntimeException.class, () -> PropertyImportService.validate(request)).getMessage();
+    }
+
+    private static PropertyRequest request(String title, String city, double price, int bedrooms) {
+        PropertyRequest request = new PropertyRequest();
+        request.setTitle(title);
+        request.setCity(city);
+        request.setPrice(price);
+        request.setBedrooms(bedrooms);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyPage;
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import com.houserenting.rentease.util.PropertyCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.houserenting.rentease.TestFixtures.persistUser;
+import static com.houserenting.rentease.TestFixtures.property;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Transactional
+class PropertyPagingTest {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void availableFromPagesReachUndatedPropertiesLast() {
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        LocalDate today = LocalDate.now();
+        Long undatedFirst = persistProperty(landlord, null);
+        Long later = persistProperty(landlord, today.plusDays(20));
+        Long undatedSecond = persistProperty(landlord, null);
+        Long sooner = persistProperty(landlord, today.plusDays(5));
+        Long sameDay = persistProperty(landlord, today.plusDays(5));
+        Long undatedThird = persistProperty(landlord, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expected = List.of(sooner, sameDay, later, undatedFirst, undatedSecond, undatedThird);
+        for (int size = 1; size <= expected.size(); size++) {
+            assertEquals(expected, pageThrough(landlord.getId(), size), "page size " + size);
+        }
+    }
+
+    @Test
+    void cursorOnUndatedRowRoundTrips() {
+        PropertyResponse last = new PropertyResponse();
+        last.setId(42L);
+        last.setPrice(500);
+
+        PropertyCursor decoded = PropertyCursor.decode(
+                PropertyCursor.after(PropertyCursor.Sort.AVAILABLE_FROM, last).encode());
+
+        assertEquals(PropertyCursor.Sort.AVAILABLE_FROM, decoded.getSort());
+        assertNull(decoded.getAvailableFrom());
+        assertEquals(42L, decoded.getId().longValue());
+    }
+
+    private List<Long> pageThrough(Long landlordId, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PropertyPage page = propertyService.getPropertiesByLandlord(landlordId, cursor, "availableFrom", size);
+            page.getContent().forEach(p -> ids.add(p.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Long persistProperty(User landlord, LocalDate availableFrom) {
+        Property property = property(landlord);
+        property.setAvailableFrom(availableFrom);
+        entityManager.persist(property);
+        return property.getId();
+    }
+}
@@ -0,0 +1,61 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.dto.PropertyResponse;
+import com.houserenting.rentease.event.PropertyChangedEvent;
+import com.houserenting.rentease.model.PropertyStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PropertySearchIndexTest {
+
+    @Test
+    void changesDuringRebuildSurviveAStaleSnapshot() {
+        PropertySearchIndex index = new PropertySearchIndex();
+        PropertyResponse loaded = property(1L, 500);
+        PropertyResponse deleted = property(2L, 700);
+
+        index.beginRebuild();
+        // Committed while the snapshot was being read: an update, a delete and an insert the snapshot missed
+        index.onPropertyChanged(new PropertyChangedEvent(1L, property(1L, 900)));
+        index.onPropertyChanged(new PropertyChangedEvent(2L, null));
+        index.onPropertyChanged(new PropertyChangedEvent(3L, property(3L, 1200)));
+        index.rebuild(List.of(loaded, deleted));
+
+        assertEquals(900, index.get(1L).getPrice());
+        assertNull(index.get(2L));
+        assertEquals(1200, index.get(3L).getPrice());
+        assertEquals(List.of(1L), ids(index.search(null, 800.0, 1000.0, null, null, null, null)));
+    }
+
+    @Test
+    void changesAfterRebuildAreNotReplayedAgain() {
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.beginRebuild();
+        index.onPropertyChanged(new PropertyChangedEvent(1L, property(1L, 900)));
+        index.rebuild(List.of(property(1L, 500)));
+
+        index.beginRebuild();
+        index.rebuild(List.of(property(1L, 300)));
+
+        assertEquals(300, index.get(1L).getPrice());
+    }
+
+    private static List<Long> ids(List<PropertyResponse> properties) {
+        return properties.stream().map(PropertyResponse::getId).toList();
+    }
+
+    private static PropertyResponse property(Long id, double price) {
+        PropertyResponse property = new PropertyResponse();
+        property.setId(id);
+        property.setTitle("Property " + id);
+        property.setCity("Kigali");
+        property.setPrice(price);
+        property.setLandlordId(10L);
+        property.setStatus(PropertyStatus.APPROVED);
+        return property;
+    }
+}
@@ -0,0 +1,70 @@
+package com.houserenting.rentease.service;
+
+import com.houserenting.rentease.model.Property;
+import com.houserenting.rentease.model.Role;
+import com.houserenting.rentease.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.houserenting.rentease.TestFixtures.persistUser;
+import static com.houserenting.rentease.TestFixtures.property;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class PropertyServiceQueryCountTest {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void landlordListingUsesFixedNumberOfStatements() {
+        User small = persistLandlordWithProperties(2);
+        User large = persistLandlordWithProperties(25);
+
+        long smallCount = countStatements(() -> propertyService.getPropertiesByLandlord(small.getId()));
+        long largeCount = countStatements(() -> propertyService.getPropertiesByLandlord(large.getId()));
+
+        // One query for the rows (landlord fetch-joined) plus one per element collection
+        assertEquals(4, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistLandlordWithProperties(int count) {
+        User landlord = persistUser(entityManager, Role.LANDLORD);
+        for (int i = 0; i < count; i++) {
+            Property property = property(landlord);
+            property.setTitle("Listing " + i);
+            property.setPrice(100 + i);
+            property.setAmenities(new ArrayList<>(List.of("wifi", "parking")));
+            property.setAdditionalPhotos(new ArrayList<>(List.of("a.jpg", "b.jpg")));
+            property.setUtilitiesIncluded(new ArrayList<>(List.of("water")));
+            entityManager.persist(property);
+        }
+        return landlord;
+    }
+}
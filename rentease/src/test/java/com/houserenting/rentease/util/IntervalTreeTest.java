@@ -0,0 +1,93 @@
+package com.houserenting.rentease.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    @Test
+    void rangesAreHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, 10, 20);
+
+        assertFalse(tree.overlaps(20, 25), "a range starting at the end does not overlap");
+        assertFalse(tree.overlaps(5, 10), "a range ending at the start does not overlap");
+        assertTrue(tree.overlaps(19, 20));
+        assertTrue(tree.overlaps(9, 11));
+        assertEquals(List.of(), tree.overlapping(20, 30));
+        assertEquals(List.of(1L), tree.overlapping(10, 11));
+    }
+
+    @Test
+    void containmentOverlapsBothWays() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, 10, 40);
+        tree.add(2, 100, 105);
+
+        assertEquals(List.of(1L), tree.overlapping(20, 25), "query inside a range");
+        assertEquals(List.of(2L), tree.overlapping(90, 200), "range inside the query");
+        assertEquals(List.of(1L, 2L), tree.overlapping(0, 1000));
+    }
+
+    @Test
+    void removedRangesNoLongerOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, 10, 20);
+        tree.add(2, 10, 30);
+        tree.add(3, 25, 35);
+
+        assertTrue(tree.remove(2, 10));
+        assertFalse(tree.remove(2, 10), "already removed");
+        assertFalse(tree.remove(3, 10), "wrong start");
+
+        assertEquals(2, tree.size());
+        assertEquals(List.of(), tree.overlapping(20, 25));
+        assertFalse(tree.overlaps(20, 25));
+        assertEquals(List.of(1L, 3L), tree.overlapping(15, 26));
+
+        assertTrue(tree.remove(1, 10));
+        assertTrue(tree.remove(3, 25));
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> ranges = new ArrayList<>();
+        long nextId = 1;
+
+        for (int step = 0; step < 20_000; step++) {
+            if (ranges.isEmpty() || random.nextInt(3) > 0) {
+                long start = random.nextInt(1000);
+                long[] range = { nextId++, start, start + 1 + random.nextInt(60) };
+                tree.add(range[0], range[1], range[2]);
+                ranges.add(range);
+            } else {
+                long[] range = ranges.remove(random.nextInt(ranges.size()));
+                assertTrue(tree.remove(range[0], range[1]));
+            }
+
+            long start = random.nextInt(1100) - 50;
+            long end = start + 1 + random.nextInt(80);
+            List<Long> expected = ranges.stream()
+                    .filter(r -> r[1] < end && r[2] > start)
+                    .sorted(Comparator.<long[]>comparingLong(r -> r[1]).thenComparingLong(r -> r[0]))
+                    .map(r -> r[0])
+                    .collect(Collectors.toList());
+            assertEquals(expected, tree.overlapping(start, end), "step " + step);
+            assertEquals(!expected.isEmpty(), tree.overlaps(start, end), "step " + step);
+            assertEquals(ranges.size(), tree.size());
+        }
+    }
+}